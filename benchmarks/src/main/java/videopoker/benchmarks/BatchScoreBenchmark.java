@@ -0,0 +1,76 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.PokerHandUtility;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PokerHandUtility.scoreHands() on a batch of hand masks, in hands per microsecond. The vector benchmark...
+ * ...forks its JVM with the Vector API module added and the scalar one without it, so the same call is measured...
+ * ...on both of its paths. Scoring the masks one by one with scoreHand(long) is the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchScoreBenchmark
+{
+    private static final int NUM_OF_HANDS = 1024;
+
+    @Param({"RANDOM", "ALL_PAIRS", "ALL_FLUSHES"})
+    private HandDistribution distribution;
+    private final long[] hands = new long[NUM_OF_HANDS];
+    private final byte[] scores = new byte[NUM_OF_HANDS];
+
+    @Setup
+    public void setUp()
+    {
+        int[][] codeHands = this.distribution.deal(NUM_OF_HANDS, 42);
+        for (int i = 0; i < NUM_OF_HANDS; ++i)
+        {
+            this.hands[i] = PokerHandUtility.handMask(codeHands[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OF_HANDS)
+    public byte[] scoreEachHand()
+    {
+        for (int i = 0; i < NUM_OF_HANDS; ++i)
+        {
+            this.scores[i] = (byte) PokerHandUtility.scoreHand(this.hands[i]).ordinal();
+        }
+        return this.scores;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OF_HANDS)
+    public byte[] scoreHandsScalar()
+    {
+        PokerHandUtility.scoreHands(this.hands, this.scores, NUM_OF_HANDS);
+        return this.scores;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OF_HANDS)
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public byte[] scoreHandsVector()
+    {
+        PokerHandUtility.scoreHands(this.hands, this.scores, NUM_OF_HANDS);
+        return this.scores;
+    }
+}
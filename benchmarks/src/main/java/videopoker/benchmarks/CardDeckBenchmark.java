@@ -0,0 +1,72 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.Card;
+import videopoker.CardDeck;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CardDeck operations used by every round: shuffling, resetting and dealing a new hand.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardDeckBenchmark
+{
+    @Param({"false", "true"})
+    private boolean lazyShuffle;
+    private CardDeck deck;
+    private final int[] hand = new int[5];
+
+    @Setup
+    public void setUp()
+    {
+        this.deck = new CardDeck(new SplittableRandom(42));
+        this.deck.setLazyShuffle(this.lazyShuffle);
+    }
+
+    @Benchmark
+    public CardDeck resetAndShuffleDeck()
+    {
+        this.deck.resetDeck();
+        this.deck.shuffleDeck();
+        return this.deck;
+    }
+
+    @Benchmark
+    public CardDeck resetDeck()
+    {
+        this.deck.resetDeck();
+        return this.deck;
+    }
+
+    @Benchmark
+    public ArrayList<Card> getNewCardHand()
+    {
+        // getNewHand() resets and shuffles the deck on its own whenever it runs out of cards.
+        return this.deck.getNewHand(5);
+    }
+
+    @Benchmark
+    public int[] getNewCodeHand()
+    {
+        this.deck.getNewHand(this.hand);
+        return this.hand;
+    }
+}
@@ -0,0 +1,67 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.Card;
+import videopoker.CardCombinations;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures walking every hand of five cards with CardCombinations' Spliterator, sequentially and as a parallel...
+ * ...stream, and the same with five nested loops.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombinationBenchmark
+{
+    private long sum;
+
+    @Benchmark
+    public long spliterator()
+    {
+        this.sum = 0;
+        CardCombinations.spliterator(Card.FULL_DECK_MASK, 5).forEachRemaining((long hand) -> this.sum += hand);
+        return this.sum;
+    }
+
+    @Benchmark
+    public long parallelStream()
+    {
+        return CardCombinations.stream(Card.FULL_DECK_MASK, 5).parallel().sum();
+    }
+
+    @Benchmark
+    public long nestedLoops()
+    {
+        long sum = 0;
+        for (int a = 4; a < Card.NUM_OF_CODES; ++a)
+        {
+            for (int b = 3; b < a; ++b)
+            {
+                for (int c = 2; c < b; ++c)
+                {
+                    for (int d = 1; d < c; ++d)
+                    {
+                        for (int e = 0; e < d; ++e)
+                        {
+                            sum += Card.mask(a) | Card.mask(b) | Card.mask(c) | Card.mask(d) | Card.mask(e);
+                        }
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+}
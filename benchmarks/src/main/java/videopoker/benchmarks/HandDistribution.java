@@ -0,0 +1,53 @@
+package videopoker.benchmarks;
+
+import videopoker.CardDeck;
+import videopoker.PokerHandUtility;
+
+import java.util.SplittableRandom;
+
+/**
+ * The kinds of hands the benchmarks are run over. Scoring cost can depend on the hand, so each benchmark is...
+ * ...parameterized over random hands, hands which are all One Pair and hands which are all Flushes.
+ */
+public enum HandDistribution
+{
+    RANDOM, ALL_PAIRS, ALL_FLUSHES;
+
+    /**
+     * Deals hands from a shuffled deck, keeping only the hands which belong to this distribution.
+     * @param numOfHands the amount of hands to deal
+     * @param seed the seed of the deck's random number generator
+     * @return the dealt hands of card codes
+     */
+    public int[][] deal(int numOfHands, long seed)
+    {
+        CardDeck deck = new CardDeck(new SplittableRandom(seed));
+        int[][] hands = new int[numOfHands][5];
+        int count = 0;
+        while (count < numOfHands)
+        {
+            deck.resetDeck();
+            deck.shuffleDeck();
+            deck.getNewHand(hands[count]);
+            if (accepts(PokerHandUtility.scoreHand(hands[count])))
+            {
+                ++count;
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * @param score the Score of a dealt hand
+     * @return returns true if a hand with the Score belongs to this distribution, false otherwise
+     */
+    private boolean accepts(PokerHandUtility.Score score)
+    {
+        return switch (this)
+        {
+            case RANDOM -> true;
+            case ALL_PAIRS -> score == PokerHandUtility.Score.ONE_PAIR;
+            case ALL_FLUSHES -> score == PokerHandUtility.Score.FLUSH;
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.Card;
+import videopoker.CardDeck;
+import videopoker.GameVariant;
+import videopoker.MultiHandSession;
+import videopoker.PokerHandUtility;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole multi-hand round: deal, hold, draw every hand and score every hand.
+ * The naive round builds a deck and a hand of Card objects for every hand, the batched round is a MultiHandSession.
+ * The holds follow a fixed random sequence of hold masks so every round does the same amount of work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiHandBenchmark
+{
+    private static final int NUM_OF_HOLDS = 1024;
+
+    @Param({"3", "10", "100"})
+    private int numOfHands;
+
+    private CardDeck deck;
+    private MultiHandSession session;
+    private SplittableRandom randomizer;
+    private final int[] holdMasks = new int[NUM_OF_HOLDS];
+    private final int[] hand = new int[5];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        this.deck = new CardDeck(new SplittableRandom(42));
+        this.deck.shuffleDeck();
+        CardDeck sessionDeck = new CardDeck(new SplittableRandom(42));
+        sessionDeck.setLazyShuffle(true);
+        this.session = new MultiHandSession(sessionDeck, GameVariant.ANY_PAIR, this.numOfHands, 0);
+        this.randomizer = new SplittableRandom(11);
+        SplittableRandom holds = new SplittableRandom(7);
+        for (int i = 0; i < NUM_OF_HOLDS; ++i)
+        {
+            this.holdMasks[i] = holds.nextInt(32);
+        }
+    }
+
+    @Benchmark
+    public long playNaiveRound()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HOLDS - 1);
+        int holdMask = this.holdMasks[this.next];
+        this.deck.resetDeck();
+        this.deck.shuffleDeck();
+        this.deck.getNewHand(this.hand);
+        long payOut = 0;
+        for (int i = 0; i < this.numOfHands; ++i)
+        {
+            // Every hand gets its own shuffled copy of the deck, and skips the cards of the dealt hand.
+            CardDeck copy = new CardDeck(this.randomizer.split());
+            copy.shuffleDeck();
+            ArrayList<Card> playerHand = new ArrayList<>(5);
+            long dealtCards = 0;
+            for (int j = 0; j < 5; ++j)
+            {
+                dealtCards |= Card.mask(this.hand[j]);
+                if ((holdMask & (1 << j)) != 0)
+                {
+                    playerHand.add(Card.valueOf(this.hand[j]));
+                }
+            }
+            while (playerHand.size() < 5)
+            {
+                Card card = copy.getTopCard();
+                if ((dealtCards & Card.mask(card.getCode())) == 0)
+                {
+                    playerHand.add(card);
+                }
+            }
+            PokerHandUtility.sortHand(playerHand);
+            payOut += GameVariant.ANY_PAIR.getPayOut(PokerHandUtility.scoreHand(playerHand).ordinal());
+        }
+        return payOut;
+    }
+
+    @Benchmark
+    public long playBatchRound()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HOLDS - 1);
+        this.session.deal();
+        this.session.draw(this.holdMasks[this.next]);
+        return this.session.settle();
+    }
+}
@@ -0,0 +1,90 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.Card;
+import videopoker.CardDeck;
+import videopoker.PokerHandUtility;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole round the way VideoPokerMain plays it: deal, sort, discard, draw, sort and score.
+ * The discards follow a fixed random sequence of hold masks so every round does the same amount of work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundBenchmark
+{
+    private static final int NUM_OF_HOLDS = 1024;
+
+    private CardDeck deck;
+    private final int[] holdMasks = new int[NUM_OF_HOLDS];
+    private final int[] hand = new int[5];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        this.deck = new CardDeck(new SplittableRandom(42));
+        this.deck.shuffleDeck();
+        SplittableRandom randomizer = new SplittableRandom(7);
+        for (int i = 0; i < NUM_OF_HOLDS; ++i)
+        {
+            this.holdMasks[i] = randomizer.nextInt(32);
+        }
+    }
+
+    @Benchmark
+    public PokerHandUtility.Score playCardRound()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HOLDS - 1);
+        ArrayList<Card> playerHand = this.deck.getNewHand(5);
+        PokerHandUtility.sortHand(playerHand);
+        if (this.deck.getCardDeckSize() >= 5)
+        {
+            for (int i = 4; i >= 0; --i)
+            {
+                if ((this.holdMasks[this.next] & (1 << i)) == 0)
+                {
+                    playerHand.remove(i);
+                    playerHand.add(this.deck.getTopCard());
+                }
+            }
+            PokerHandUtility.sortHand(playerHand);
+        }
+        return PokerHandUtility.scoreHand(playerHand);
+    }
+
+    @Benchmark
+    public PokerHandUtility.Score playCodeRound()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HOLDS - 1);
+        this.deck.getNewHand(this.hand);
+        if (this.deck.getCardDeckSize() >= 5)
+        {
+            for (int i = 0; i < 5; ++i)
+            {
+                if ((this.holdMasks[this.next] & (1 << i)) == 0)
+                {
+                    this.hand[i] = this.deck.getTopCardCode();
+                }
+            }
+        }
+        return PokerHandUtility.scoreHand(this.hand);
+    }
+}
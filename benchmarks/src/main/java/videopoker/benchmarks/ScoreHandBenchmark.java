@@ -0,0 +1,90 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.Card;
+import videopoker.GameVariant;
+import videopoker.PokerHandUtility;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PokerHandUtility.scoreHand() on both of its hand forms, handRank(), and scoring with a compiled GameVariant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreHandBenchmark
+{
+    private static final int NUM_OF_HANDS = 1024;
+
+    @Param({"RANDOM", "ALL_PAIRS", "ALL_FLUSHES"})
+    private HandDistribution distribution;
+    private int[][] hands;
+    private ArrayList<ArrayList<Card>> cardHands;
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        this.hands = this.distribution.deal(NUM_OF_HANDS, 42);
+        this.cardHands = new ArrayList<>(NUM_OF_HANDS);
+        for (int[] hand : this.hands)
+        {
+            ArrayList<Card> cardHand = new ArrayList<>(hand.length);
+            for (int code : hand)
+            {
+                cardHand.add(Card.valueOf(code));
+            }
+            this.cardHands.add(cardHand);
+        }
+    }
+
+    @Benchmark
+    public PokerHandUtility.Score scoreCardHand()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        return PokerHandUtility.scoreHand(this.cardHands.get(this.next));
+    }
+
+    @Benchmark
+    public PokerHandUtility.Score scoreCodeHand()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        return PokerHandUtility.scoreHand(this.hands[this.next]);
+    }
+
+    @Benchmark
+    public int rankCodeHand()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        return PokerHandUtility.handRank(this.hands[this.next]);
+    }
+
+    @Benchmark
+    public int payOutDoubleDoubleBonus()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        return GameVariant.DOUBLE_DOUBLE_BONUS.payOut(this.hands[this.next]);
+    }
+
+    @Benchmark
+    public int payOutDeucesWild()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        return GameVariant.DEUCES_WILD.payOut(this.hands[this.next]);
+    }
+}
@@ -0,0 +1,75 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.CardDeck;
+import videopoker.PokerHandUtility;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ranking the best five of seven cards with PokerHandUtility.bestHandRank(), and the same by trying all...
+ * ...21 subsets of five cards with handRank().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SevenCardBenchmark
+{
+    private static final int NUM_OF_HANDS = 1024;
+
+    private final int[][] hands = new int[NUM_OF_HANDS][7];
+    private final long[] masks = new long[NUM_OF_HANDS];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        CardDeck deck = new CardDeck(new SplittableRandom(42));
+        for (int i = 0; i < NUM_OF_HANDS; ++i)
+        {
+            deck.resetDeck();
+            deck.shuffleDeck();
+            deck.getNewHand(this.hands[i]);
+            this.masks[i] = PokerHandUtility.handMask(this.hands[i]);
+        }
+    }
+
+    @Benchmark
+    public int bestHandRank()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        return PokerHandUtility.bestHandRank(this.masks[this.next]);
+    }
+
+    @Benchmark
+    public int bestOfSubsets()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        int[] hand = this.hands[this.next];
+        long mask = this.masks[this.next];
+        int best = 0;
+        // Every subset of five cards leaves out two of the seven.
+        for (int i = 0; i < 7; ++i)
+        {
+            for (int j = i + 1; j < 7; ++j)
+            {
+                long subset = mask & ~(1L << hand[i]) & ~(1L << hand[j]);
+                best = Math.max(best, PokerHandUtility.handRank(subset));
+            }
+        }
+        return best;
+    }
+}
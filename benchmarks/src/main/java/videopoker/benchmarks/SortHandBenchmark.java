@@ -0,0 +1,68 @@
+package videopoker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import videopoker.Card;
+import videopoker.PokerHandUtility;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PokerHandUtility.sortHand() on both of its hand forms. Each call first copies an unsorted hand into a...
+ * ...reused hand, so every call sorts unsorted cards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortHandBenchmark
+{
+    private static final int NUM_OF_HANDS = 1024;
+
+    @Param({"RANDOM", "ALL_PAIRS", "ALL_FLUSHES"})
+    private HandDistribution distribution;
+    private int[][] hands;
+    private final int[] codeHand = new int[5];
+    private final ArrayList<Card> cardHand = new ArrayList<>(5);
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        this.hands = this.distribution.deal(NUM_OF_HANDS, 42);
+    }
+
+    @Benchmark
+    public ArrayList<Card> sortCardHand()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        this.cardHand.clear();
+        for (int code : this.hands[this.next])
+        {
+            this.cardHand.add(Card.valueOf(code));
+        }
+        PokerHandUtility.sortHand(this.cardHand);
+        return this.cardHand;
+    }
+
+    @Benchmark
+    public int[] sortCodeHand()
+    {
+        this.next = (this.next + 1) & (NUM_OF_HANDS - 1);
+        System.arraycopy(this.hands[this.next], 0, this.codeHand, 0, this.codeHand.length);
+        PokerHandUtility.sortHand(this.codeHand);
+        return this.codeHand;
+    }
+}
@@ -0,0 +1,368 @@
+package videopoker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This program audits a HandJournal by replaying every recorded round and checking it against the record.
+ * Each session is replayed from its recorded seed: the seeded CardDeck seeks straight to the recorded round, the...
+ * ...hand is re-dealt, the recorded hold is re-drawn, and the final hand is re-scored and re-paid by the game...
+ * ...variant. Any difference in the dealt cards, final cards, Score, pay out or token balance is reported.
+ * The journal is streamed one segment at a time through a small buffer, so inputs of any size can be audited.
+ * Records are handed to one worker thread per processor core, split by session, since each session's token...
+ * ...balance carries over from one round to the next. A journal may start or skip in the middle of a session.
+ * A session is known by its id and seed together, since a restarted server numbers its sessions from 1 again.
+ * Each worker keeps the replays of its MAX_REPLAYS_PER_WORKER most recently seen sessions. A session which was...
+ * ...dropped and shows up again seeks to its recorded round, like a session the journal starts in the middle of.
+ *
+ * Usage: java videopoker.AuditVerifier [journal directory] [variant]
+ */
+public class AuditVerifier
+{
+    private static final int WORDS_PER_RECORD = HandJournal.RECORD_SIZE / Long.BYTES;
+    private static final int RECORDS_PER_BATCH = 4096;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+    private static final int MAX_REPLAYS_PER_WORKER = 4096;
+    // Instance variables
+    private final GameVariant VARIANT;
+    private final AtomicLong verifiedRounds = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        Path directory = Path.of(args.length > 0 ? args[0] : "journal");
+        GameVariant variant = args.length > 1 ? GameVariant.valueOf(args[1]) : GameVariant.ANY_PAIR;
+        AuditVerifier verifier = new AuditVerifier(variant);
+        long startTime = System.nanoTime();
+        verifier.verify(directory, Runtime.getRuntime().availableProcessors());
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("Verified %,d rounds in %.2f seconds (%,.0f rounds/second), %,d mismatches\n",
+                          verifier.getVerifiedRounds(), seconds, verifier.getVerifiedRounds() / seconds,
+                          verifier.getMismatches());
+    }
+
+    /**
+     * Constructs an AuditVerifier.
+     * @param variant the game variant the journal was recorded with
+     */
+    public AuditVerifier(GameVariant variant)
+    {
+        this.VARIANT = variant;
+    }
+
+    /**
+     * @return returns the amount of rounds replayed so far
+     */
+    public long getVerifiedRounds()
+    {
+        return this.verifiedRounds.get();
+    }
+
+    /**
+     * @return returns the amount of rounds which did not match their replay
+     */
+    public long getMismatches()
+    {
+        return this.mismatches.get();
+    }
+
+    /**
+     * Replays every round of a journal.
+     * @param directory the journal's directory
+     * @param numOfWorkers the amount of worker threads
+     * @throws IOException if a segment cannot be read
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+     */
+    public void verify(Path directory, int numOfWorkers) throws IOException, InterruptedException
+    {
+        Worker[] workers = new Worker[numOfWorkers];
+        long[][] batches = new long[numOfWorkers][];
+        int[] batchSizes = new int[numOfWorkers];
+        for (int i = 0; i < numOfWorkers; ++i)
+        {
+            workers[i] = new Worker();
+            workers[i].start();
+            batches[i] = new long[RECORDS_PER_BATCH * WORDS_PER_RECORD];
+        }
+
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE - READ_BUFFER_SIZE % HandJournal.RECORD_SIZE);
+            for (int segmentNumber = 0; Files.exists(HandJournal.segmentPath(directory, segmentNumber)); ++segmentNumber)
+            {
+                try (FileChannel channel = FileChannel.open(HandJournal.segmentPath(directory, segmentNumber),
+                                                            StandardOpenOption.READ))
+                {
+                    checkHeader(channel, segmentNumber);
+                    boolean endOfSegment = false;
+                    buffer.clear();
+                    while (!endOfSegment && channel.read(buffer) > 0)
+                    {
+                        buffer.flip();
+                        while (buffer.remaining() >= HandJournal.RECORD_SIZE)
+                        {
+                            long sessionId = buffer.getLong(buffer.position());
+                            if (buffer.getLong(buffer.position() + 3 * Long.BYTES) == 0)
+                            {
+                                endOfSegment = true;
+                                break;
+                            }
+                            // Every round of a session goes to the same worker, so it is replayed in order.
+                            int worker = (int) Math.floorMod(sessionId * 0x9E3779B97F4A7C15L, (long) numOfWorkers);
+                            long[] batch = batches[worker];
+                            for (int word = 0; word < WORDS_PER_RECORD; ++word)
+                            {
+                                batch[batchSizes[worker]++] = buffer.getLong();
+                            }
+                            if (batchSizes[worker] == batch.length)
+                            {
+                                workers[worker].queue.put(batch);
+                                batches[worker] = new long[batch.length];
+                                batchSizes[worker] = 0;
+                            }
+                        }
+                        buffer.compact();
+                    }
+                }
+            }
+        }
+        finally
+        {
+            for (int i = 0; i < numOfWorkers; ++i)
+            {
+                workers[i].queue.put(Arrays.copyOf(batches[i], batchSizes[i]));
+                workers[i].queue.put(new long[0]);
+            }
+            for (Worker worker : workers)
+            {
+                worker.join();
+            }
+        }
+    }
+
+    /**
+     * Checks that a segment file starts with a journal header, and moves past the header.
+     * @param channel the segment's channel
+     * @param segmentNumber the number of the segment
+     * @throws IOException if the segment cannot be read or is not a journal segment
+     */
+    private static void checkHeader(FileChannel channel, int segmentNumber) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HandJournal.HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header) > 0)
+        {
+            // Keep reading until the whole header is read.
+        }
+        if (header.hasRemaining() || header.getInt(0) != HandJournal.MAGIC
+            || header.getInt(Integer.BYTES) != HandJournal.VERSION
+            || header.getInt(2 * Integer.BYTES) != HandJournal.RECORD_SIZE)
+        {
+            throw new IOException("Segment " + segmentNumber + " is not a journal segment");
+        }
+    }
+
+    /**
+     * A worker thread which replays the rounds of its share of the sessions, in the order they were recorded.
+     */
+    private class Worker extends Thread
+    {
+        private final BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(16);
+        // The replays in order of use, so the least recently used one is dropped once there are too many.
+        private final LinkedHashMap<ReplayKey, Replay> replays = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReplayKey, Replay> eldest)
+            {
+                return size() > MAX_REPLAYS_PER_WORKER;
+            }
+        };
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                long[] batch;
+                while ((batch = this.queue.take()).length > 0)
+                {
+                    for (int offset = 0; offset < batch.length; offset += WORDS_PER_RECORD)
+                    {
+                        try
+                        {
+                            verifyRound(batch, offset);
+                        }
+                        catch (RuntimeException e)
+                        {
+                            // A corrupt record, such as one with a bad card, hold or round, cannot be replayed.
+                            // Its session starts over from its next record, which seeks to that record's round.
+                            this.replays.remove(new ReplayKey(batch[offset], batch[offset + 1]));
+                            report(batch[offset], batch[offset + 2], "cannot be replayed: " + e);
+                        }
+                    }
+                    verifiedRounds.addAndGet(batch.length / WORDS_PER_RECORD);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Replays one recorded round and compares it to the record.
+         * @param batch the batch holding the record
+         * @param offset the index of the record's first word in the batch
+         */
+        private void verifyRound(long[] batch, int offset)
+        {
+            long sessionId = batch[offset];
+            long seed = batch[offset + 1];
+            long round = batch[offset + 2];
+            long cards = batch[offset + 3];
+            long result = batch[offset + 4];
+
+            ReplayKey key = new ReplayKey(sessionId, seed);
+            Replay replay = this.replays.get(key);
+            if (replay == null)
+            {
+                replay = new Replay(seed);
+                this.replays.put(key, replay);
+            }
+            GameSession session = replay.session;
+            if (replay.started && round != session.getRoundsPlayed())
+            {
+                report(sessionId, round, "expected round " + session.getRoundsPlayed());
+            }
+            if (!replay.started || round != session.getRoundsPlayed())
+            {
+                // The balance before the round is whatever the record says it was left with, minus its winnings.
+                long tokens = HandJournal.tokens(result) - HandJournal.payOut(result) + 1;
+                session.seekRound(round, tokens);
+                replay.started = true;
+            }
+
+            session.deal();
+            session.sortHand();
+            session.getHand(replay.hand);
+            if (handMask(replay.hand) != recordedHandMask(cards, false))
+            {
+                report(sessionId, round, "dealt cards differ");
+            }
+            session.draw(HandJournal.holdMask(result));
+            session.sortHand();
+            session.getHand(replay.hand);
+            PokerHandUtility.Score score = session.settle();
+            if (handMask(replay.hand) != recordedHandMask(cards, true))
+            {
+                report(sessionId, round, "final cards differ");
+            }
+            int pattern = VARIANT.handPattern(replay.hand);
+            if (PokerHandUtility.patternScore(pattern).ordinal() != HandJournal.score(cards)
+                || score.ordinal() != HandJournal.score(cards))
+            {
+                report(sessionId, round, "expected Score " + score);
+            }
+            if (HandJournal.payOut(result) != session.getLastPayOut())
+            {
+                report(sessionId, round, "expected pay out " + session.getLastPayOut());
+            }
+            if (HandJournal.tokens(result) != session.getTokens())
+            {
+                report(sessionId, round, "expected token balance " + session.getTokens());
+            }
+        }
+    }
+
+    /**
+     * The id and seed of a session, which together tell it apart from sessions of other server runs.
+     */
+    private static final class ReplayKey
+    {
+        private final long sessionId;
+        private final long seed;
+
+        ReplayKey(long sessionId, long seed)
+        {
+            this.sessionId = sessionId;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof ReplayKey key && key.sessionId == this.sessionId && key.seed == this.seed;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode(this.sessionId * 31 + this.seed);
+        }
+    }
+
+    /**
+     * The replayed state of one session.
+     */
+    private class Replay
+    {
+        private final GameSession session;
+        private final int[] hand = new int[GameSession.CARDS_PER_HAND];
+        private boolean started;
+
+        Replay(long seed)
+        {
+            CardDeck deck = new CardDeck(seed, VARIANT.hasJoker());
+            deck.setLazyShuffle(true);
+            this.session = new GameSession(deck, VARIANT, 0, true);
+        }
+    }
+
+    /**
+     * @param hand five card codes
+     * @return returns the card mask of the hand
+     */
+    private static long handMask(int[] hand)
+    {
+        return PokerHandUtility.handMask(hand);
+    }
+
+    /**
+     * @param cards word 3 of a record
+     * @param finalHand true for the final cards, false for the dealt cards
+     * @return returns the card mask of the recorded cards
+     */
+    private static long recordedHandMask(long cards, boolean finalHand)
+    {
+        long mask = 0;
+        for (int i = 0; i < GameSession.CARDS_PER_HAND; ++i)
+        {
+            mask |= Card.mask(finalHand ? HandJournal.finalCard(cards, i) : HandJournal.dealtCard(cards, i));
+        }
+        return mask;
+    }
+
+    /**
+     * Counts a mismatch, and prints it if not too many have been printed already.
+     * @param sessionId the session of the round
+     * @param round the round number
+     * @param message what did not match
+     */
+    private void report(long sessionId, long round, String message)
+    {
+        if (this.mismatches.incrementAndGet() <= MAX_REPORTED_MISMATCHES)
+        {
+            System.out.printf("Mismatch in session %d round %d: %s\n", sessionId, round, message);
+        }
+    }
+}
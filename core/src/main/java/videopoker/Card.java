@@ -0,0 +1,134 @@
+package videopoker;
+
+/**
+ * Simple Card class which holds two values. Its rank and its suit type.
+ * It also contains enums which represent different Ranks and Suits for the other classes to use.
+ * Every card can also be represented by a compact card code (0 - 51), which is suit * 13 + rank.
+ * Codes follow the same order as a freshly reset CardDeck (all Hearts, then Diamonds, Spades and Clubs).
+ * A deck with a joker also holds the card code 52 (JOKER), after the Clubs.
+ */
+public class Card
+{
+    public enum Ranks {TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE, TEN, JACK, QUEEN, KING, ACE}
+    public enum Suits {HEARTS, DIAMONDS, SPADES, CLUBS}
+    public static final int NUM_OF_RANKS = 13;
+    public static final int NUM_OF_CODES = 52;
+    // The card code of the joker, which only 53 card decks hold. The joker has no rank, suit or Card object.
+    public static final int JOKER = 52;
+    // A card mask holds a set of cards in a long, with bit n set if the set holds the card with card code n.
+    // Set operations on cards become single instructions, for example: FULL_DECK_MASK & ~hand is the rest of the deck.
+    public static final long FULL_DECK_MASK = (1L << NUM_OF_CODES) - 1;
+    private static final Ranks[] RANKS = Ranks.values();
+    private static final Suits[] SUITS = Suits.values();
+    // One shared Card object for every card code.
+    private static final Card[] CARDS = new Card[NUM_OF_CODES];
+
+    static
+    {
+        for (int code = 0; code < NUM_OF_CODES; ++code)
+        {
+            CARDS[code] = new Card(decodeRank(code), decodeSuit(code));
+        }
+    }
+
+    // Instance variables
+    private final Ranks rank;
+    private final Suits suit;
+    private final int code;
+
+    /**
+     * Constructs a Card object with a set rank (A - K) and set suit (Hearts, Spades, Clubs, Diamonds)
+     * Prefer Card.valueOf(), which returns a shared Card object instead of creating a new one.
+     * @param rank the desired rank
+     * @param suit the desired suit
+     */
+    public Card(Ranks rank, Suits suit)
+    {
+        this.rank = rank;
+        this.suit = suit;
+        this.code = encode(rank, suit);
+    }
+
+    /**
+     * Returns the shared Card object of a given rank and suit.
+     * @param rank the desired rank
+     * @param suit the desired suit
+     * @return the shared Card object with the desired rank and suit
+     */
+    public static Card valueOf(Ranks rank, Suits suit)
+    {
+        return CARDS[encode(rank, suit)];
+    }
+
+    /**
+     * Returns the shared Card object of a given card code.
+     * @param code the card code (0 - 51)
+     * @return the shared Card object with the desired card code
+     */
+    public static Card valueOf(int code)
+    {
+        return CARDS[code];
+    }
+
+    /**
+     * Converts a rank and suit into a card code.
+     * @param rank the card's rank
+     * @param suit the card's suit
+     * @return the card code (0 - 51)
+     */
+    public static int encode(Ranks rank, Suits suit)
+    {
+        return suit.ordinal() * NUM_OF_RANKS + rank.ordinal();
+    }
+
+    /**
+     * @param code the card code (0 - 51)
+     * @return returns the card mask holding only the card with the card code
+     */
+    public static long mask(int code)
+    {
+        return 1L << code;
+    }
+
+    /**
+     * @param code the card code (0 - 51)
+     * @return returns the rank of a card code
+     */
+    public static Ranks decodeRank(int code)
+    {
+        return RANKS[code % NUM_OF_RANKS];
+    }
+
+    /**
+     * @param code the card code (0 - 51)
+     * @return returns the suit of a card code
+     */
+    public static Suits decodeSuit(int code)
+    {
+        return SUITS[code / NUM_OF_RANKS];
+    }
+
+    /**
+     * @return returns the Card object's rank.
+     */
+    public Ranks getRank()
+    {
+        return this.rank;
+    }
+
+    /**
+     * @return returns the Card object's suit
+     */
+    public Suits getSuit()
+    {
+        return this.suit;
+    }
+
+    /**
+     * @return returns the Card object's card code (0 - 51)
+     */
+    public int getCode()
+    {
+        return this.code;
+    }
+}
\ No newline at end of file
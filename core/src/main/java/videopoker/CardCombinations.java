@@ -0,0 +1,337 @@
+package videopoker;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This is a utility class for iterating and indexing combinations of cards, such as every hand of five cards or...
+ * ...every way to draw three cards from what is left of a deck.
+ * A combination is held as a card mask. The combinations of k cards from a set of cards are numbered by the...
+ * ...combinatorial number system: the cards of the set are numbered from 0 by card code, and a combination whose...
+ * ...cards have the numbers c1 < c2 < ... < ck gets the index C(c1, 1) + C(c2, 2) + ... + C(ck, k). This numbers...
+ * ...the C(n, k) combinations from 0 to C(n, k) - 1 in the same order as their card masks, so rank() and unrank()...
+ * ...convert between a combination and its index, and an index range can be walked in order without searching.
+ */
+public class CardCombinations
+{
+    // The number of hands of five cards from a deck of 52, C(52, 5).
+    public static final int NUM_OF_HANDS = 2_598_960;
+    private static final int MAX_CARDS = 64;
+    // BINOMIALS[n][k] = C(n, k), which is 0 when k > n.
+    private static final long[][] BINOMIALS = new long[MAX_CARDS + 1][MAX_CARDS + 1];
+
+    static
+    {
+        for (int n = 0; n <= MAX_CARDS; ++n)
+        {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= n; ++k)
+            {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * @param n the size of the set (0 - 64)
+     * @param k the size of the combinations
+     * @return returns the number of combinations of k of a set of n, C(n, k)
+     */
+    public static long binomial(int n, int k)
+    {
+        return k < 0 || k > n ? 0 : BINOMIALS[n][k];
+    }
+
+    /**
+     * Finds the index of a combination of cards among the combinations of as many cards from a full deck.
+     * For a hand of five cards it is from 0 to NUM_OF_HANDS - 1.
+     * @param hand the card mask of the combination
+     * @return returns the index of the combination
+     */
+    public static long rank(long hand)
+    {
+        long index = 0;
+        for (int i = 1; hand != 0; ++i)
+        {
+            index += BINOMIALS[Long.numberOfTrailingZeros(hand)][i];
+            hand &= hand - 1;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the index of a combination of cards among the combinations of as many cards from a set of cards.
+     * @param hand the card mask of the combination
+     * @param cards the card mask of the set of cards
+     * @return returns the index of the combination
+     * @throws IllegalArgumentException if the combination holds a card which is not in the set
+     */
+    public static long rank(long hand, long cards)
+    {
+        if ((hand & ~cards) != 0)
+        {
+            throw new IllegalArgumentException("The hand holds cards which are not in the set");
+        }
+        long index = 0;
+        for (int i = 1; hand != 0; ++i)
+        {
+            long card = hand & -hand;
+            index += BINOMIALS[Long.bitCount(cards & (card - 1))][i];
+            hand ^= card;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the combination of cards of a full deck with an index, the reverse of rank(long).
+     * @param index the index of the combination
+     * @param size the amount of cards in the combination
+     * @return returns the card mask of the combination
+     * @throws IllegalArgumentException if the index is not below C(52, size)
+     */
+    public static long unrank(long index, int size)
+    {
+        return unrank(index, size, Card.FULL_DECK_MASK);
+    }
+
+    /**
+     * Finds the combination of cards of a set of cards with an index, the reverse of rank(long, long).
+     * @param index the index of the combination
+     * @param size the amount of cards in the combination
+     * @param cards the card mask of the set of cards
+     * @return returns the card mask of the combination
+     * @throws IllegalArgumentException if the index is not below C(n, size), for the n cards of the set
+     */
+    public static long unrank(long index, int size, long cards)
+    {
+        long positions = unrankPositions(index, size, Long.bitCount(cards));
+        long hand = 0;
+        for (long position = 1; cards != 0; position <<= 1)
+        {
+            long card = cards & -cards;
+            if ((positions & position) != 0)
+            {
+                hand |= card;
+            }
+            cards ^= card;
+        }
+        return hand;
+    }
+
+    /**
+     * @param cards the card mask of the set of cards
+     * @param size the amount of cards in each combination
+     * @return returns a Spliterator over every combination of size cards from the set, in index order
+     */
+    public static CombinationSpliterator spliterator(long cards, int size)
+    {
+        return new CombinationSpliterator(cards, size);
+    }
+
+    /**
+     * Streams every combination of cards from a set of cards, in index order. The stream can be made parallel, in...
+     * ...which case it is split into ranges of indexes of the same size.
+     * @param cards the card mask of the set of cards
+     * @param size the amount of cards in each combination
+     * @return returns a sequential stream of the card masks of the combinations
+     */
+    public static LongStream stream(long cards, int size)
+    {
+        return StreamSupport.longStream(spliterator(cards, size), false);
+    }
+
+    /**
+     * Walks the combinations of a set of cards in a range of indexes, allocating nothing per combination.
+     * The current combination is held as a mask of the numbers of its cards within the set, and the next one is...
+     * ...the next larger mask with as many bits, which only takes a few bit operations. trySplit() hands the first...
+     * ...half of the range to a new Spliterator and jumps to the middle with unrank, so the two halves hold the...
+     * ...same amount of combinations.
+     */
+    public static final class CombinationSpliterator implements Spliterator.OfLong
+    {
+        // The card mask of each card of the set, by its number within the set.
+        private final long[] CARDS;
+        // When the set is one run of card codes, such as a full deck, a combination's card mask is just its mask...
+        // ...of numbers shifted up to the set's lowest card; otherwise it is -1.
+        private final int SHIFT;
+        private final int SIZE;
+        private final long END;
+        private long index;
+        private long positions;
+
+        /**
+         * Constructs a Spliterator over every combination of a set of cards.
+         * @param cards the card mask of the set of cards
+         * @param size the amount of cards in each combination
+         * @throws IllegalArgumentException if the size is negative or larger than the set
+         */
+        CombinationSpliterator(long cards, int size)
+        {
+            if (size < 0 || size > Long.bitCount(cards))
+            {
+                throw new IllegalArgumentException("Cannot choose " + size + " of " + Long.bitCount(cards) + " cards");
+            }
+            this.CARDS = new long[Long.bitCount(cards)];
+            long run = cards >>> Long.numberOfTrailingZeros(cards);
+            this.SHIFT = (run & (run + 1)) == 0 ? Long.numberOfTrailingZeros(cards) : -1;
+            for (int i = 0; cards != 0; ++i)
+            {
+                this.CARDS[i] = cards & -cards;
+                cards &= cards - 1;
+            }
+            this.SIZE = size;
+            this.END = BINOMIALS[this.CARDS.length][size];
+            this.positions = (1L << size) - 1;
+        }
+
+        /**
+         * Constructs a Spliterator over a range of the combinations of another Spliterator's set.
+         * @param cards the card mask of each card of the set, by its number within the set
+         * @param shift the shift from a combination's numbers to its cards, or -1
+         * @param size the amount of cards in each combination
+         * @param index the index of the first combination
+         * @param end the index after the last combination
+         * @param positions the numbers of the cards of the first combination, as a mask
+         */
+        private CombinationSpliterator(long[] cards, int shift, int size, long index, long end, long positions)
+        {
+            this.CARDS = cards;
+            this.SHIFT = shift;
+            this.SIZE = size;
+            this.index = index;
+            this.END = end;
+            this.positions = positions;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action)
+        {
+            if (this.index >= this.END)
+            {
+                return false;
+            }
+            action.accept(toCards(this.positions));
+            if (++this.index < this.END)
+            {
+                this.positions = nextPositions(this.positions);
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action)
+        {
+            long positions = this.positions;
+            for (long i = this.index; i < this.END; ++i)
+            {
+                action.accept(toCards(positions));
+                if (i + 1 < this.END)
+                {
+                    positions = nextPositions(positions);
+                }
+            }
+            this.positions = positions;
+            this.index = this.END;
+        }
+
+        @Override
+        public CombinationSpliterator trySplit()
+        {
+            long middle = this.index + (this.END - this.index) / 2;
+            if (middle == this.index)
+            {
+                return null;
+            }
+            CombinationSpliterator prefix = new CombinationSpliterator(this.CARDS, this.SHIFT, this.SIZE, this.index,
+                                                                       middle, this.positions);
+            this.index = middle;
+            this.positions = unrankPositions(middle, this.SIZE, this.CARDS.length);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return this.END - this.index;
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        /**
+         * @return returns null, as the combinations are in the natural order of their card masks
+         */
+        @Override
+        public Comparator<? super Long> getComparator()
+        {
+            return null;
+        }
+
+        /**
+         * @param positions the numbers of the cards of a combination, as a mask
+         * @return returns the card mask of the combination
+         */
+        private long toCards(long positions)
+        {
+            if (this.SHIFT >= 0)
+            {
+                return positions << this.SHIFT;
+            }
+            long hand = 0;
+            while (positions != 0)
+            {
+                hand |= this.CARDS[Long.numberOfTrailingZeros(positions)];
+                positions &= positions - 1;
+            }
+            return hand;
+        }
+    }
+
+    /**
+     * Finds the next larger mask with as many bits set (Gosper's hack), which is the next combination's mask.
+     * @param positions a mask with at least one bit set
+     * @return returns the next larger mask with as many bits set
+     */
+    private static long nextPositions(long positions)
+    {
+        long ripple = positions + (positions & -positions);
+        return ripple | ((positions ^ ripple) >>> (Long.numberOfTrailingZeros(positions) + 2));
+    }
+
+    /**
+     * Finds the numbers of the cards of the combination with an index, as a mask. Each number is the largest...
+     * ...one whose binomial still fits in what is left of the index, from the highest card down.
+     * @param index the index of the combination
+     * @param size the amount of cards in the combination
+     * @param numOfCards the amount of cards in the set
+     * @return returns the numbers of the cards of the combination, as a mask
+     * @throws IllegalArgumentException if the index is not below C(numOfCards, size)
+     */
+    private static long unrankPositions(long index, int size, int numOfCards)
+    {
+        if (index < 0 || index >= binomial(numOfCards, size))
+        {
+            throw new IllegalArgumentException("There is no combination " + index + " of " + size + " of "
+                                               + numOfCards + " cards");
+        }
+        long positions = 0;
+        int position = numOfCards - 1;
+        for (int i = size; i >= 1; --i)
+        {
+            while (BINOMIALS[position][i] > index)
+            {
+                --position;
+            }
+            index -= BINOMIALS[position][i];
+            positions |= 1L << position;
+            --position;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,445 @@
+package videopoker;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class depends on the Card class, as without cards, there can be no Card Deck.
+ * CardDeck's main purpose is to build a deck of cards of all 13 Ranks of each of the 4 Suits (52 total cards each deck, or 53 with a joker)
+ * This class can shuffle its card deck, return a hand of cards, return a single card from the top of its deck, or...
+ * ...reset (un-shuffle) the deck entirely to get it ready for the next game.
+ * The deck is stored as an array of card codes (see the Card class), so resetting and shuffling it does not
+ * create any new objects. Each deck owns its own random number generator.
+ * A deck with a joker can only be dealt as card codes, since the joker has no Card object.
+ * A deck constructed from a seed is fully reproducible: its n-th shuffle depends only on the seed and n, so...
+ * ...seekShuffle(n) can jump straight to any shuffle of a game without replaying the shuffles before it.
+ */
+public class CardDeck
+{
+    // Odd constants of the SplitMix64 generator, one to step between random numbers and one to derive child seeds.
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long SPLIT_GAMMA = 0xBF58476D1CE4E5B9L;
+    private final RandomGenerator RANDOMIZER;
+    private final int[] CARD_DECK;
+    // The number of shuffles done so far. A seeded deck uses it to pick the random stream of the next shuffle.
+    private long shuffleCount;
+    private long splitCount;
+    // The top of the deck is at index (size - 1).
+    private int size;
+    // When lazy shuffling is on, shuffleDeck() only marks the deck as shuffled and each card is picked at random...
+    // ...as it is dealt, so only the cards that are actually dealt cost any random numbers.
+    private boolean lazyShuffle;
+    private boolean shufflePending;
+
+    /**
+     * Constructs a card deck with all four suits. It contains a total of 52 cards.
+     */
+    public CardDeck()
+    {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a card deck with all four suits which uses a given random number generator to shuffle its cards.
+     * For example: new SplittableRandom(), RandomGenerator.of("L64X128MixRandom") or new SecureRandom().
+     * @param randomizer the random number generator this deck shuffles with
+     */
+    public CardDeck(RandomGenerator randomizer)
+    {
+        this(randomizer, false);
+    }
+
+    /**
+     * Constructs a card deck with all four suits, and a joker if asked for (53 cards in total).
+     * The joker has no Card object, so a deck with a joker must be dealt as card codes (getTopCardCode() and...
+     * ...getNewHand(int[])).
+     * @param randomizer the random number generator this deck shuffles with
+     * @param withJoker true to add a joker (card code 52) to the deck
+     */
+    public CardDeck(RandomGenerator randomizer, boolean withJoker)
+    {
+        this.RANDOMIZER = randomizer;
+        this.CARD_DECK = new int[withJoker ? Card.NUM_OF_CODES + 1 : Card.NUM_OF_CODES];
+        resetDeck();
+    }
+
+    /**
+     * Constructs a reproducible card deck with all four suits. Two decks with the same seed deal the same cards.
+     * Every shuffle uses its own stream of random numbers, derived from the seed and the number of the shuffle.
+     * @param seed the seed of the deck
+     */
+    public CardDeck(long seed)
+    {
+        this(seed, false);
+    }
+
+    /**
+     * Constructs a reproducible card deck with all four suits, and a joker if asked for.
+     * @param seed the seed of the deck
+     * @param withJoker true to add a joker (card code 52) to the deck
+     */
+    public CardDeck(long seed, boolean withJoker)
+    {
+        this(new ShuffleStream(seed), withJoker);
+    }
+
+    /**
+     * Creates a new deck with a random number generator that is independent of this deck's, for example to give...
+     * ...each worker thread of a simulation its own deck. Splitting a seeded deck is reproducible as well: the n-th...
+     * ...deck split from a seeded deck always gets the same seed.
+     * @return returns a new, reset deck with the same lazy shuffle setting as this deck
+     * @throws UnsupportedOperationException if this deck's random number generator cannot be split or jumped
+     */
+    public CardDeck split()
+    {
+        CardDeck child;
+        if (this.RANDOMIZER instanceof ShuffleStream stream)
+        {
+            child = new CardDeck(ShuffleStream.mix(stream.SEED + ++this.splitCount * SPLIT_GAMMA), hasJoker());
+        }
+        else if (this.RANDOMIZER instanceof RandomGenerator.SplittableGenerator splittable)
+        {
+            child = new CardDeck(splittable.split(), hasJoker());
+        }
+        else if (this.RANDOMIZER instanceof RandomGenerator.JumpableGenerator jumpable)
+        {
+            // The copy keeps this deck's place in the sequence, and this deck jumps far ahead of it.
+            child = new CardDeck(jumpable.copyAndJump(), hasJoker());
+        }
+        else
+        {
+            throw new UnsupportedOperationException(this.RANDOMIZER.getClass().getName() + " cannot be split");
+        }
+        child.lazyShuffle = this.lazyShuffle;
+        return child;
+    }
+
+    /**
+     * @return returns true if this deck holds a joker (when it is full)
+     */
+    public boolean hasJoker()
+    {
+        return this.CARD_DECK.length > Card.NUM_OF_CODES;
+    }
+
+    /**
+     * @return returns the number of times this deck has been shuffled
+     */
+    public long getShuffleCount()
+    {
+        return this.shuffleCount;
+    }
+
+    /**
+     * Resets the deck and shuffles it exactly as its n-th shuffle (counting from 0) would, without doing the...
+     * ...shuffles before it. Only a seeded deck can seek.
+     * @param shuffleNumber the number of the shuffle to redo
+     * @throws UnsupportedOperationException if this deck was not constructed from a seed
+     */
+    public void seekShuffle(long shuffleNumber)
+    {
+        if (!(this.RANDOMIZER instanceof ShuffleStream))
+        {
+            throw new UnsupportedOperationException("Only a seeded deck can seek");
+        }
+        resetDeck();
+        this.shuffleCount = shuffleNumber;
+        shuffleDeck();
+    }
+
+    /**
+     * @return returns the current card deck
+     * @throws IllegalStateException if the deck holds a joker, which has no Card object
+     */
+    public ArrayList<Card> getCardDeck()
+    {
+        requireNoJoker();
+        finishShuffle();
+        ArrayList<Card> cards = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; ++i)
+        {
+            cards.add(Card.valueOf(this.CARD_DECK[i]));
+        }
+        return cards;
+    }
+
+    /**
+     * @return returns the size of the card deck
+     */
+    public int getCardDeckSize()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return returns the card mask of the cards left in the deck (bit n is set if the deck holds card code n)
+     */
+    public long getCardDeckMask()
+    {
+        long mask = 0;
+        for (int i = 0; i < this.size; ++i)
+        {
+            mask |= Card.mask(this.CARD_DECK[i]);
+        }
+        return mask;
+    }
+
+    /**
+     * Turns lazy shuffling on or off.
+     * With lazy shuffling, shuffleDeck() does no work up front. Instead, every card dealt afterwards is picked at...
+     * ...random from the cards that are left, which deals the cards in the same random order as a full shuffle would.
+     * @param lazyShuffle true to shuffle lazily, false to shuffle the whole deck on every shuffleDeck() call
+     */
+    public void setLazyShuffle(boolean lazyShuffle)
+    {
+        finishShuffle();
+        this.lazyShuffle = lazyShuffle;
+    }
+
+    /**
+     * @return returns true if this deck shuffles lazily, false otherwise
+     */
+    public boolean isLazyShuffle()
+    {
+        return this.lazyShuffle;
+    }
+
+    /**
+     * Pops a card from the top of the card deck, essentially decrementing the card deck size by -1.
+     * @return returns a Card object which is located at the top of the card deck.
+     * @throws IllegalStateException if the deck holds a joker, which has no Card object
+     */
+    public Card getTopCard()
+    {
+        requireNoJoker();
+        int code = getTopCardCode();
+        if (code >= 0)
+        {
+            return Card.valueOf(code);
+        }
+        return null;
+    }
+
+    /**
+     * Pops a card from the top of the card deck, just like getTopCard(), but returns its card code instead.
+     * @return returns the card code (0 - 52) of the card at the top of the card deck, or -1 if the deck is empty.
+     */
+    public int getTopCardCode()
+    {
+        if (this.size == 0)
+        {
+            return -1;
+        }
+        if (this.shufflePending)
+        {
+            // One step of the Fisher-Yates shuffle, done only for the card being dealt.
+            swap(this.RANDOMIZER.nextInt(this.size), this.size - 1);
+        }
+        return this.CARD_DECK[--this.size];
+    }
+
+    /**
+     * Returns a new hand of cards.
+     * If there are not enough cards in the deck to create a new hand of cards, then the deck will...
+     * ...automatically reset and shuffle its cards, and then return the new hand of cards.
+     * @param handSize the desired size amount of cards in the hand
+     * @return a new hand of cards of a desired size amount
+     * @throws IllegalStateException if the deck holds a joker, which has no Card object
+     */
+    public ArrayList<Card> getNewHand(int handSize)
+    {
+        requireNoJoker();
+        if (this.getCardDeckSize() < handSize)
+        {
+            this.resetDeck();
+            this.shuffleDeck();
+        }
+        return getCards(handSize);
+    }
+
+    /**
+     * Fills an array with a new hand of card codes, one card code per element.
+     * Works just like getNewHand(int), but lets the caller reuse the same array for every hand.
+     * @param hand the array to fill with card codes (0 - 52)
+     */
+    public void getNewHand(int[] hand)
+    {
+        if (this.getCardDeckSize() < hand.length)
+        {
+            this.resetDeck();
+            this.shuffleDeck();
+        }
+        for (int i = 0; i < hand.length; ++i)
+        {
+            hand[i] = getTopCardCode();
+        }
+    }
+
+    /**
+     * Deals the same amount of cards from each of a number of independent copies of the cards left in the deck,...
+     * ...as a multi-hand machine does when every hand draws from its own copy of the deck. No copies are made: each...
+     * ...copy's cards are picked at random from the deck's own array, and the deck keeps all of its cards.
+     * @param count the amount of cards to deal from each copy
+     * @param copies the amount of copies of the deck to deal from
+     * @param cards the array to write the card codes to, copy after copy ((copies * count) elements)
+     * @throws IllegalArgumentException if there are fewer than count cards left in the deck
+     */
+    public void dealFromCopies(int count, int copies, int[] cards)
+    {
+        if (count > this.size)
+        {
+            throw new IllegalArgumentException("Cannot deal " + count + " cards from " + this.size);
+        }
+        // A partial Fisher-Yates shuffle of the top cards picks a uniformly random sequence of cards whatever order...
+        // ...the deck is in, so every copy can start from where the one before it left the array.
+        int next = 0;
+        for (int copy = 0; copy < copies; ++copy)
+        {
+            for (int i = this.size - 1; i >= this.size - count; --i)
+            {
+                swap(this.RANDOMIZER.nextInt(i + 1), i);
+                cards[next++] = this.CARD_DECK[i];
+            }
+        }
+    }
+
+    /**
+     * Randomly shuffles the CardDeck's deck (using the Fisher-Yates shuffle).
+     * If lazy shuffling is on, the cards are instead randomized one at a time as they are dealt.
+     */
+    public void shuffleDeck()
+    {
+        if (this.RANDOMIZER instanceof ShuffleStream stream)
+        {
+            stream.seek(this.shuffleCount);
+        }
+        ++this.shuffleCount;
+        if (this.lazyShuffle)
+        {
+            this.shufflePending = true;
+            return;
+        }
+        shuffleRemainingCards();
+    }
+
+    /**
+     * Resets the card to its default, non-shuffled form.
+     * Use the shuffleDeck() method after invoking this method in...
+     * ...order to get the deck ready for the next game.
+     */
+    public void resetDeck()
+    {
+        for (int code = 0; code < this.CARD_DECK.length; ++code)
+        {
+            this.CARD_DECK[code] = code;
+        }
+        this.size = this.CARD_DECK.length;
+        this.shufflePending = false;
+    }
+
+    /**
+     * Helper function for getNewHand(). Returns a hand containing n amount of cards from the CardDeck object's deck.
+     * @param amount the desired amount of cards to be grabbed
+     * @return an array list containing the desired amount of cards
+     */
+    private ArrayList<Card> getCards(int amount)
+    {
+        ArrayList<Card> hand = new ArrayList<>(amount);
+        for (int i = 0; i < amount; ++i)
+        {
+            hand.add(getTopCard());
+        }
+        return hand;
+    }
+
+    /**
+     * Checks that every card of the deck has a Card object, which the joker does not.
+     * @throws IllegalStateException if the deck holds a joker
+     */
+    private void requireNoJoker()
+    {
+        if (hasJoker())
+        {
+            throw new IllegalStateException("A deck with a joker must be dealt as card codes, with getTopCardCode() "
+                                            + "or getNewHand(int[])");
+        }
+    }
+
+    /**
+     * Completes a pending lazy shuffle by shuffling all the cards that are left in the deck.
+     */
+    private void finishShuffle()
+    {
+        if (this.shufflePending)
+        {
+            this.shufflePending = false;
+            shuffleRemainingCards();
+        }
+    }
+
+    /**
+     * Shuffles all the cards that are left in the deck in place (using the Fisher-Yates shuffle).
+     */
+    private void shuffleRemainingCards()
+    {
+        for (int i = this.size - 1; i > 0; --i)
+        {
+            swap(this.RANDOMIZER.nextInt(i + 1), i);
+        }
+    }
+
+    /**
+     * Swaps two cards in the deck.
+     * @param index1 the first card's index
+     * @param index2 the second card's index
+     */
+    private void swap(int index1, int index2)
+    {
+        int temp = this.CARD_DECK[index1];
+        this.CARD_DECK[index1] = this.CARD_DECK[index2];
+        this.CARD_DECK[index2] = temp;
+    }
+
+    /**
+     * The random number generator of a seeded deck: a SplitMix64 generator which is restarted at the beginning of...
+     * ...every shuffle, from a hash of the seed and the shuffle's number.
+     */
+    private static final class ShuffleStream implements RandomGenerator
+    {
+        private final long SEED;
+        private long state;
+
+        ShuffleStream(long seed)
+        {
+            this.SEED = seed;
+        }
+
+        /**
+         * Restarts the stream at the beginning of a shuffle.
+         * @param shuffleNumber the number of the shuffle
+         */
+        void seek(long shuffleNumber)
+        {
+            this.state = mix(this.SEED ^ mix(shuffleNumber * GOLDEN_GAMMA + SPLIT_GAMMA));
+        }
+
+        @Override
+        public long nextLong()
+        {
+            return mix(this.state += GOLDEN_GAMMA);
+        }
+
+        /**
+         * The SplitMix64 finalizer, which spreads every bit of its input over every bit of its output.
+         * @param z the value to mix
+         * @return returns the mixed value
+         */
+        static long mix(long z)
+        {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,683 @@
+package videopoker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * This program works out how often each of two or more hold'em hands wins, ties and loses once the board of five...
+ * ...community cards is complete. Each player has up to two hole cards, or a range of possible hole cards, and...
+ * ...some of the board and some dead cards may already be known. Every player makes the best five card hand of...
+ * ...their hole cards and the board (see PokerHandUtility.bestHandRank()), and the players with the highest rank...
+ * ...share the pot.
+ * When every player has one known hand and there are few enough boards left, every board is dealt once...
+ * ...(exhaustive enumeration). Otherwise deals are sampled at random (Monte Carlo) in batches until the standard...
+ * ...error of every player's equity is below a target. Either way the work is split over all processor cores...
+ * ...with fork/join, each Monte Carlo task with its own random number generator split off the calculator's seed.
+ *
+ * Usage: java videopoker.EquityCalculator hand hand [hand...] [board cards] [dead cards] [seed number]
+ * Cards are written as rank and suit, such as "AHKD" for the Ace of Hearts and King of Diamonds, and "XX" is any...
+ * ...two cards. A hand of one card, such as "AH", gets its other hole card dealt from the cards left, just like...
+ * ...the board. Example: java videopoker.EquityCalculator AHKD QSQC board 2C7DJH
+ */
+public class EquityCalculator
+{
+    public static final int BOARD_SIZE = 5;
+    public static final int MAX_HOLE_CARDS = 2;
+    public static final double DEFAULT_TARGET_ERROR = 0.0005;
+    public static final long DEFAULT_MAX_TRIALS = 100_000_000;
+    // Boards are dealt exhaustively when there are at most this many (heads up before the flop has 1,712,304).
+    private static final long EXHAUSTIVE_LIMIT = 2_000_000;
+    private static final int BOARDS_PER_TASK = 1 << 14;
+    private static final int TRIALS_PER_TASK = 1 << 14;
+    // A Monte Carlo deal is dealt again if the players' hands overlap, but not forever.
+    private static final int MAX_REDEALS = 10_000;
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final String SUIT_CHARS = "HDSC";
+    private static final String USAGE = "Usage: java videopoker.EquityCalculator hand hand [hand...] [board cards] "
+                                        + "[dead cards] [seed number]";
+    // Instance variables
+    private final long[][] RANGES;
+    private final long BOARD;
+    private final long DEAD_CARDS;
+    private final long SEED;
+
+    public static void main(String[] args)
+    {
+        List<long[]> ranges = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        long board = 0;
+        long deadCards = 0;
+        long seed = System.nanoTime();
+        for (int i = 0; i < args.length; ++i)
+        {
+            boolean option = args[i].equalsIgnoreCase("board") || args[i].equalsIgnoreCase("dead")
+                             || args[i].equalsIgnoreCase("seed");
+            if (option && i + 1 == args.length)
+            {
+                System.out.println(USAGE);
+                return;
+            }
+            switch (args[i].toLowerCase())
+            {
+                case "board" -> board = parseCards(args[++i]);
+                case "dead" -> deadCards = parseCards(args[++i]);
+                case "seed" -> seed = Long.parseLong(args[++i]);
+                case "xx" -> ranges.add(anyHoleCards());
+                default -> ranges.add(new long[] {parseCards(args[i])});
+            }
+            if (ranges.size() > names.size())
+            {
+                names.add(args[i].toUpperCase());
+            }
+        }
+        if (ranges.size() < 2)
+        {
+            System.out.println(USAGE);
+            return;
+        }
+        EquityCalculator calculator = new EquityCalculator(ranges.toArray(new long[0][]), board, deadCards, seed);
+        System.out.printf("%s %d players on %d threads\n", calculator.isExhaustive() ? "Enumerating" : "Sampling",
+                          ranges.size(), ForkJoinPool.commonPool().getParallelism());
+        long startTime = System.nanoTime();
+        Result result = calculator.calculate(DEFAULT_TARGET_ERROR, DEFAULT_MAX_TRIALS, partial ->
+                System.out.printf("%,d deals: equity %s\n", partial.getTrials(), formatEquities(partial)));
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("\n%,d deals in %.2f seconds (%s)\n", result.getTrials(), seconds,
+                          result.isExact() ? "exact" : "Monte Carlo");
+        for (int player = 0; player < ranges.size(); ++player)
+        {
+            System.out.printf("%s: win %.3f%%  tie %.3f%%  lose %.3f%%  equity %.3f%% (+/- %.3f%%)\n",
+                              names.get(player), 100 * result.getWinProbability(player),
+                              100 * result.getTieProbability(player), 100 * result.getLoseProbability(player),
+                              100 * result.getEquity(player), 100 * 1.96 * result.getStandardError(player));
+        }
+    }
+
+    /**
+     * Constructs an EquityCalculator.
+     * @param ranges the possible hole cards of each player, as card masks of up to two cards (one mask for a known...
+     *               ...hand)
+     * @param board the card mask of the board cards dealt so far (up to five)
+     * @param deadCards the card mask of the cards which are out of play
+     * @param seed the seed of the random number generators of a Monte Carlo calculation
+     * @throws IllegalArgumentException if there are fewer than two players or too many to deal to, a range is...
+     *                                  ...empty or holds a hand of more than two cards, the board holds more...
+     *                                  ...than five cards, the board, dead cards and known hands share a card, or...
+     *                                  ...every hand of a range holds one of those cards
+     */
+    public EquityCalculator(long[][] ranges, long board, long deadCards, long seed)
+    {
+        if (ranges.length < 2)
+        {
+            throw new IllegalArgumentException("Equity needs at least two players, not " + ranges.length);
+        }
+        if (Long.bitCount(board) > BOARD_SIZE)
+        {
+            throw new IllegalArgumentException("The board cannot hold more than " + BOARD_SIZE + " cards");
+        }
+        if (((board | deadCards) & ~Card.FULL_DECK_MASK) != 0 || (board & deadCards) != 0)
+        {
+            throw new IllegalArgumentException("The board and dead cards must be different cards of a 52 card deck");
+        }
+        if (ranges.length * MAX_HOLE_CARDS + BOARD_SIZE + Long.bitCount(deadCards) > Card.NUM_OF_CODES)
+        {
+            throw new IllegalArgumentException("There are not enough cards to deal to " + ranges.length + " players");
+        }
+        for (long[] range : ranges)
+        {
+            if (range.length == 0)
+            {
+                throw new IllegalArgumentException("Every player needs at least one possible hand");
+            }
+            for (long hand : range)
+            {
+                if (Long.bitCount(hand) > MAX_HOLE_CARDS || (hand & ~Card.FULL_DECK_MASK) != 0)
+                {
+                    throw new IllegalArgumentException("A hand holds up to " + MAX_HOLE_CARDS + " cards of a 52 "
+                                                       + "card deck");
+                }
+            }
+        }
+        // A deal could never be made if a card were in two places, so Monte Carlo sampling would redeal forever.
+        long knownCards = board | deadCards;
+        for (long[] range : ranges)
+        {
+            if (range.length == 1)
+            {
+                if ((range[0] & knownCards) != 0)
+                {
+                    throw new IllegalArgumentException("The known hands, board and dead cards cannot share a card");
+                }
+                knownCards |= range[0];
+            }
+        }
+        for (long[] range : ranges)
+        {
+            // A known hand was checked above, and is part of the known cards itself.
+            boolean possible = range.length == 1;
+            for (long hand : range)
+            {
+                possible |= (hand & knownCards) == 0;
+            }
+            if (!possible)
+            {
+                throw new IllegalArgumentException("Every hand of a range shares a card with the known hands, board "
+                                                   + "or dead cards");
+            }
+        }
+        this.RANGES = ranges.clone();
+        this.BOARD = board;
+        this.DEAD_CARDS = deadCards;
+        this.SEED = seed;
+    }
+
+    /**
+     * Holds the totals of an equity calculation. Results of different tasks are added together with merge().
+     */
+    public static class Result
+    {
+        private final long[] WINS;
+        private final long[] TIES;
+        // Each deal's share of the pot for every player, summed, and squared and summed for the standard error.
+        private final double[] SHARES;
+        private final double[] SQUARED_SHARES;
+        private long trials;
+        private boolean exact;
+
+        Result(int numOfPlayers)
+        {
+            this.WINS = new long[numOfPlayers];
+            this.TIES = new long[numOfPlayers];
+            this.SHARES = new double[numOfPlayers];
+            this.SQUARED_SHARES = new double[numOfPlayers];
+        }
+
+        /**
+         * Records one deal.
+         * @param ranks the rank of each player's best hand
+         */
+        void record(int[] ranks)
+        {
+            int best = 0;
+            int winners = 0;
+            for (int rank : ranks)
+            {
+                if (rank > best)
+                {
+                    best = rank;
+                    winners = 1;
+                }
+                else if (rank == best)
+                {
+                    ++winners;
+                }
+            }
+            double share = 1.0 / winners;
+            for (int player = 0; player < ranks.length; ++player)
+            {
+                if (ranks[player] == best)
+                {
+                    if (winners == 1)
+                    {
+                        ++this.WINS[player];
+                    }
+                    else
+                    {
+                        ++this.TIES[player];
+                    }
+                    this.SHARES[player] += share;
+                    this.SQUARED_SHARES[player] += share * share;
+                }
+            }
+            ++this.trials;
+        }
+
+        /**
+         * Adds another Result's totals to this Result.
+         * @param other the Result to add
+         * @return this Result
+         */
+        Result merge(Result other)
+        {
+            for (int player = 0; player < this.WINS.length; ++player)
+            {
+                this.WINS[player] += other.WINS[player];
+                this.TIES[player] += other.TIES[player];
+                this.SHARES[player] += other.SHARES[player];
+                this.SQUARED_SHARES[player] += other.SQUARED_SHARES[player];
+            }
+            this.trials += other.trials;
+            return this;
+        }
+
+        /**
+         * @return returns the amount of deals played out
+         */
+        public long getTrials()
+        {
+            return this.trials;
+        }
+
+        /**
+         * @return returns true if every possible board was dealt, false if the deals were sampled
+         */
+        public boolean isExact()
+        {
+            return this.exact;
+        }
+
+        /**
+         * @param player the index of the player
+         * @return returns the probability that the player wins the whole pot
+         */
+        public double getWinProbability(int player)
+        {
+            return (double) this.WINS[player] / this.trials;
+        }
+
+        /**
+         * @param player the index of the player
+         * @return returns the probability that the player splits the pot with one or more other players
+         */
+        public double getTieProbability(int player)
+        {
+            return (double) this.TIES[player] / this.trials;
+        }
+
+        /**
+         * @param player the index of the player
+         * @return returns the probability that the player wins no part of the pot
+         */
+        public double getLoseProbability(int player)
+        {
+            return 1 - getWinProbability(player) - getTieProbability(player);
+        }
+
+        /**
+         * @param player the index of the player
+         * @return returns the player's expected share of the pot
+         */
+        public double getEquity(int player)
+        {
+            return this.SHARES[player] / this.trials;
+        }
+
+        /**
+         * @param player the index of the player
+         * @return returns the standard error of the player's equity, 0 if every board was dealt
+         */
+        public double getStandardError(int player)
+        {
+            if (this.exact)
+            {
+                return 0;
+            }
+            double mean = getEquity(player);
+            double variance = Math.max(0, this.SQUARED_SHARES[player] / this.trials - mean * mean);
+            return Math.sqrt(variance / this.trials);
+        }
+
+        /**
+         * @return returns the largest standard error of any player's equity
+         */
+        public double getMaxStandardError()
+        {
+            double error = 0;
+            for (int player = 0; player < this.WINS.length; ++player)
+            {
+                error = Math.max(error, getStandardError(player));
+            }
+            return error;
+        }
+    }
+
+    /**
+     * @return returns true if calculate() deals every possible board and missing hole cards, false if it samples...
+     *         ...the deals
+     */
+    public boolean isExhaustive()
+    {
+        long knownCards = this.BOARD | this.DEAD_CARDS;
+        for (long[] range : this.RANGES)
+        {
+            if (range.length != 1 || (range[0] & knownCards) != 0)
+            {
+                return false;
+            }
+            knownCards |= range[0];
+        }
+        // Count the deals: every board, times every way to deal each player's missing hole cards from the rest.
+        int cardsLeft = Card.NUM_OF_CODES - Long.bitCount(knownCards);
+        int missing = BOARD_SIZE - Long.bitCount(this.BOARD);
+        long deals = CardCombinations.binomial(cardsLeft, missing);
+        cardsLeft -= missing;
+        for (long[] range : this.RANGES)
+        {
+            missing = MAX_HOLE_CARDS - Long.bitCount(range[0]);
+            deals *= CardCombinations.binomial(cardsLeft, missing);
+            cardsLeft -= missing;
+            if (deals > EXHAUSTIVE_LIMIT)
+            {
+                return false;
+            }
+        }
+        return deals <= EXHAUSTIVE_LIMIT;
+    }
+
+    /**
+     * Calculates every player's equity with the default target error and trial limit, without reporting progress.
+     * @return returns the totals of the calculation
+     */
+    public Result calculate()
+    {
+        return calculate(DEFAULT_TARGET_ERROR, DEFAULT_MAX_TRIALS, result -> { });
+    }
+
+    /**
+     * Calculates every player's equity on the common fork/join pool, by dealing every board if isExhaustive(),...
+     * ...or else by sampling deals in batches of one task per processor core. After every batch the listener is...
+     * ...given the totals so far, so a user interface can show the estimate converging, and the calculation stops...
+     * ...once every player's standard error is at most targetError or maxTrials deals have been sampled.
+     * @param targetError the standard error of the equities to stop sampling at
+     * @param maxTrials the largest amount of deals to sample
+     * @param listener receives the totals after every batch (and once at the end of an exhaustive calculation),...
+     *                 ...on the calling thread
+     * @return returns the totals of the calculation
+     * @throws IllegalStateException if the players' ranges overlap so much that no deal can be made
+     */
+    public Result calculate(double targetError, long maxTrials, Consumer<Result> listener)
+    {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (isExhaustive())
+        {
+            long knownCards = this.BOARD | this.DEAD_CARDS;
+            long[] hands = new long[this.RANGES.length];
+            for (int player = 0; player < hands.length; ++player)
+            {
+                hands[player] = this.RANGES[player][0];
+                knownCards |= hands[player];
+            }
+            long cards = Card.FULL_DECK_MASK & ~knownCards;
+            int missing = BOARD_SIZE - Long.bitCount(this.BOARD);
+            // With a full board there is just the one board to rank, the empty combination of new cards.
+            Result result = pool.invoke(new EnumerationTask(hands, cards,
+                                                            CardCombinations.spliterator(cards, missing)));
+            result.exact = true;
+            listener.accept(result);
+            return result;
+        }
+        SplittableRandom randomizer = new SplittableRandom(this.SEED);
+        int numOfTasks = pool.getParallelism();
+        Result total = new Result(this.RANGES.length);
+        do
+        {
+            List<SamplingTask> tasks = new ArrayList<>(numOfTasks);
+            for (int i = 0; i < numOfTasks; ++i)
+            {
+                tasks.add(new SamplingTask(randomizer.split()));
+            }
+            for (SamplingTask task : ForkJoinTask.invokeAll(tasks))
+            {
+                total.merge(task.join());
+            }
+            listener.accept(total);
+        } while (total.getMaxStandardError() > targetError && total.getTrials() < maxTrials);
+        return total;
+    }
+
+    /**
+     * A fork/join task which deals every board in a range of the combinations of new cards, splitting the range in...
+     * ...two halves of the same size while it holds more than BOARDS_PER_TASK boards. On each board it also deals...
+     * ...every combination of the players' missing hole cards from the cards left.
+     */
+    private class EnumerationTask extends RecursiveTask<Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] hands;
+        private final long cards;
+        private final CardCombinations.CombinationSpliterator boards;
+
+        EnumerationTask(long[] hands, long cards, CardCombinations.CombinationSpliterator boards)
+        {
+            this.hands = hands;
+            this.cards = cards;
+            this.boards = boards;
+        }
+
+        @Override
+        protected Result compute()
+        {
+            if (this.boards.estimateSize() > BOARDS_PER_TASK)
+            {
+                EnumerationTask left = new EnumerationTask(this.hands, this.cards, this.boards.trySplit());
+                left.fork();
+                return compute().merge(left.join());
+            }
+            Result result = new Result(this.hands.length);
+            long[] dealtHands = new long[this.hands.length];
+            int[] ranks = new int[this.hands.length];
+            this.boards.forEachRemaining((long newCards) ->
+                    dealHoleCards(dealtHands, 0, this.cards & ~newCards, BOARD | newCards, ranks, result));
+            return result;
+        }
+
+        /**
+         * Deals the missing hole cards of a player and every player after them in every combination, and records...
+         * ...each deal.
+         * @param dealtHands the array to write each player's full hand to
+         * @param player the index of the first player left to deal to
+         * @param cardsLeft the card mask of the cards not dealt yet
+         * @param board the card mask of the full board
+         * @param ranks the array to write each player's rank to
+         * @param result the Result to record the deals in
+         */
+        private void dealHoleCards(long[] dealtHands, int player, long cardsLeft, long board, int[] ranks,
+                                   Result result)
+        {
+            if (player == this.hands.length)
+            {
+                rankAll(dealtHands, board, ranks);
+                result.record(ranks);
+                return;
+            }
+            long hand = this.hands[player];
+            int missing = MAX_HOLE_CARDS - Long.bitCount(hand);
+            if (missing == 0)
+            {
+                dealtHands[player] = hand;
+                dealHoleCards(dealtHands, player + 1, cardsLeft, board, ranks, result);
+                return;
+            }
+            for (long first = cardsLeft; first != 0; first &= first - 1)
+            {
+                long card = first & -first;
+                if (missing == 1)
+                {
+                    dealtHands[player] = hand | card;
+                    dealHoleCards(dealtHands, player + 1, cardsLeft & ~card, board, ranks, result);
+                    continue;
+                }
+                for (long second = first & (first - 1); second != 0; second &= second - 1)
+                {
+                    long otherCard = second & -second;
+                    dealtHands[player] = hand | card | otherCard;
+                    dealHoleCards(dealtHands, player + 1, cardsLeft & ~card & ~otherCard, board, ranks, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * A fork/join task which samples one share of a batch of random deals with its own random number generator.
+     */
+    private class SamplingTask extends RecursiveTask<Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableRandom randomizer;
+
+        SamplingTask(SplittableRandom randomizer)
+        {
+            this.randomizer = randomizer;
+        }
+
+        @Override
+        protected Result compute()
+        {
+            Result result = new Result(RANGES.length);
+            long[] hands = new long[RANGES.length];
+            int[] ranks = new int[RANGES.length];
+            for (int trial = 0; trial < TRIALS_PER_TASK; ++trial)
+            {
+                long board = deal(hands);
+                rankAll(hands, board, ranks);
+                result.record(ranks);
+            }
+            return result;
+        }
+
+        /**
+         * Picks every player's hand from their range, dealing again if two of them hold the same card, and deals...
+         * ...the players' missing hole cards and the rest of the board from the cards left.
+         * @param hands the array to write each player's hand to
+         * @return returns the card mask of the full board
+         */
+        private long deal(long[] hands)
+        {
+            long usedCards = 0;
+            for (int redeals = 0; redeals < MAX_REDEALS; ++redeals)
+            {
+                usedCards = BOARD | DEAD_CARDS;
+                int player = 0;
+                while (player < hands.length)
+                {
+                    long[] range = RANGES[player];
+                    long hand = range.length == 1 ? range[0] : range[this.randomizer.nextInt(range.length)];
+                    if ((hand & usedCards) != 0)
+                    {
+                        break;
+                    }
+                    hands[player++] = hand;
+                    usedCards |= hand;
+                }
+                if (player == hands.length)
+                {
+                    for (player = 0; player < hands.length; ++player)
+                    {
+                        for (int cards = Long.bitCount(hands[player]); cards < MAX_HOLE_CARDS; ++cards)
+                        {
+                            long card = dealCard(usedCards);
+                            hands[player] |= card;
+                            usedCards |= card;
+                        }
+                    }
+                    long board = BOARD;
+                    for (int cards = Long.bitCount(board); cards < BOARD_SIZE; ++cards)
+                    {
+                        long card = dealCard(usedCards);
+                        board |= card;
+                        usedCards |= card;
+                    }
+                    return board;
+                }
+            }
+            throw new IllegalStateException("The players' hands overlap in almost every deal");
+        }
+
+        /**
+         * @param usedCards the card mask of the cards already dealt or out of play
+         * @return returns the card mask of a random card which is not used
+         */
+        private long dealCard(long usedCards)
+        {
+            long card;
+            do
+            {
+                card = Card.mask(this.randomizer.nextInt(Card.NUM_OF_CODES));
+            } while ((card & usedCards) != 0);
+            return card;
+        }
+    }
+
+    /**
+     * Ranks every player's best hand on a board.
+     * @param hands the card mask of each player's hole cards
+     * @param board the card mask of the full board
+     * @param ranks the array to write each player's rank to
+     */
+    private static void rankAll(long[] hands, long board, int[] ranks)
+    {
+        for (int player = 0; player < hands.length; ++player)
+        {
+            ranks[player] = PokerHandUtility.bestHandRank(hands[player] | board);
+        }
+    }
+
+    /**
+     * @return returns every hand of two cards, as card masks
+     */
+    public static long[] anyHoleCards()
+    {
+        long[] hands = new long[Card.NUM_OF_CODES * (Card.NUM_OF_CODES - 1) / 2];
+        int next = 0;
+        for (int first = 0; first < Card.NUM_OF_CODES; ++first)
+        {
+            for (int second = first + 1; second < Card.NUM_OF_CODES; ++second)
+            {
+                hands[next++] = Card.mask(first) | Card.mask(second);
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * Parses cards written as rank and suit characters, such as "AHKD".
+     * @param cards the cards to parse
+     * @return returns the card mask of the cards
+     * @throws IllegalArgumentException if a card cannot be parsed, or a card is written more than once
+     */
+    public static long parseCards(String cards)
+    {
+        if (cards.length() % 2 != 0)
+        {
+            throw new IllegalArgumentException("Every card is a rank and a suit, so \"" + cards + "\" cannot be cards");
+        }
+        long mask = 0;
+        for (int i = 0; i < cards.length(); i += 2)
+        {
+            int rank = RANK_CHARS.indexOf(Character.toUpperCase(cards.charAt(i)));
+            int suit = SUIT_CHARS.indexOf(Character.toUpperCase(cards.charAt(i + 1)));
+            if (rank < 0 || suit < 0)
+            {
+                throw new IllegalArgumentException("Not a card: " + cards.substring(i, i + 2));
+            }
+            long card = Card.mask(suit * Card.NUM_OF_RANKS + rank);
+            if ((mask & card) != 0)
+            {
+                throw new IllegalArgumentException("The card " + cards.substring(i, i + 2) + " is written twice");
+            }
+            mask |= card;
+        }
+        return mask;
+    }
+
+    /**
+     * @param result the totals of a calculation
+     * @return returns every player's equity so far, as percentages
+     */
+    private static String formatEquities(Result result)
+    {
+        StringBuilder equities = new StringBuilder();
+        for (int player = 0; player < result.WINS.length; ++player)
+        {
+            equities.append(String.format(player == 0 ? "%.2f%%" : " / %.2f%%", 100 * result.getEquity(player)));
+        }
+        return equities.toString();
+    }
+}
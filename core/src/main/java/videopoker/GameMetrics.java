@@ -0,0 +1,323 @@
+package videopoker;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Live counters for any number of GameSessions (see GameSession.setMetrics()): hands dealt, rounds played, hits of...
+ * ...each Score, tokens in and out, and the latencies of drawing and of scoring. They can be read directly, over JMX...
+ * ...(see GameMetricsMBean) or over HTTP in the Prometheus text format.
+ * Recording is cheap enough for the hot path of a simulation on every core. Each session counts its own rounds in...
+ * ...plain fields and adds them to the shared counters once every SAMPLE_INTERVAL rounds (see GameSession), and the...
+ * ...shared counters are LongAdders, which spread concurrent updates over striped cells. The latency histograms are...
+ * ...striped as well, and only one round in every SAMPLE_INTERVAL is timed, since reading the clock costs more than...
+ * ...the rest of the recording.
+ * The rate of hands dealt is measured over about the last RATE_WINDOW_SECONDS, from samples of the hands dealt...
+ * ...kept by the metrics. A sample is taken when the rate is read, at most once a second, so any number of JMX...
+ * ...clients and scrapers can read the rate without changing what the others see.
+ */
+public class GameMetrics implements GameMetricsMBean
+{
+    // A session times, and hands over its counts after, the rounds whose number is a multiple of SAMPLE_INTERVAL.
+    public static final int SAMPLE_INTERVAL = 64;
+    private static final PokerHandUtility.Score[] SCORES = PokerHandUtility.Score.values();
+    private static final int RATE_WINDOW_SECONDS = 10;
+    private static final long RATE_WINDOW_NANOS = RATE_WINDOW_SECONDS * 1_000_000_000L;
+    private static final long RATE_SAMPLE_NANOS = 1_000_000_000L;
+    // Instance variables
+    private final LongAdder HANDS_DEALT = new LongAdder();
+    private final LongAdder[] SCORE_HITS = new LongAdder[SCORES.length];
+    private final LongAdder TOKENS_OUT = new LongAdder();
+    private final LatencyHistogram DRAW_LATENCY = new LatencyHistogram();
+    private final LatencyHistogram SCORE_LATENCY = new LatencyHistogram();
+    private volatile double theoreticalReturnToPlayer = Double.NaN;
+    // A ring of the latest samples of the hands dealt and when they were taken, enough to span the rate window.
+    private final long[] RATE_SAMPLE_HANDS = new long[RATE_WINDOW_SECONDS + 1];
+    private final long[] RATE_SAMPLE_TIMES = new long[RATE_WINDOW_SECONDS + 1];
+    private int rateSamples;
+
+    /**
+     * Constructs a set of metrics with every counter at 0.
+     */
+    public GameMetrics()
+    {
+        for (int i = 0; i < SCORES.length; ++i)
+        {
+            this.SCORE_HITS[i] = new LongAdder();
+        }
+        // The first sample is the start, so the rate is measured from there until the window fills up.
+        this.RATE_SAMPLE_TIMES[0] = System.nanoTime();
+        this.rateSamples = 1;
+    }
+
+    /**
+     * Adds a batch of counts. Every round bets one token and hits one Score, so the rounds played and the tokens...
+     * ...bet are the sum of the hits.
+     * @param handsDealt the amount of hands dealt
+     * @param scoreHits the amount of settled rounds which ended in each Score (indexed by Score ordinal)
+     * @param tokensOut the amount of tokens paid out
+     */
+    public void add(long handsDealt, long[] scoreHits, long tokensOut)
+    {
+        this.HANDS_DEALT.add(handsDealt);
+        for (int i = 0; i < SCORES.length; ++i)
+        {
+            if (scoreHits[i] != 0)
+            {
+                this.SCORE_HITS[i].add(scoreHits[i]);
+            }
+        }
+        this.TOKENS_OUT.add(tokensOut);
+    }
+
+    /**
+     * @param nanos the time a draw took, in nanoseconds
+     */
+    public void recordDrawLatency(long nanos)
+    {
+        this.DRAW_LATENCY.record(nanos);
+    }
+
+    /**
+     * @param nanos the time scoring and paying a hand took, in nanoseconds
+     */
+    public void recordScoreLatency(long nanos)
+    {
+        this.SCORE_LATENCY.record(nanos);
+    }
+
+    /**
+     * @param returnToPlayer the return to player of optimal play (for example from RtpCalculator), or NaN
+     */
+    public void setTheoreticalReturnToPlayer(double returnToPlayer)
+    {
+        this.theoreticalReturnToPlayer = returnToPlayer;
+    }
+
+    @Override
+    public long getHandsDealt()
+    {
+        return this.HANDS_DEALT.sum();
+    }
+
+    @Override
+    public synchronized double getHandsDealtPerSecond()
+    {
+        long hands = this.HANDS_DEALT.sum();
+        long time = System.nanoTime();
+        int length = this.RATE_SAMPLE_TIMES.length;
+        if (time - this.RATE_SAMPLE_TIMES[(this.rateSamples - 1) % length] >= RATE_SAMPLE_NANOS)
+        {
+            this.RATE_SAMPLE_HANDS[this.rateSamples % length] = hands;
+            this.RATE_SAMPLE_TIMES[this.rateSamples % length] = time;
+            ++this.rateSamples;
+        }
+        // Measure from the oldest sample inside the window, or from the newest one before it if it holds none.
+        int from = -1;
+        for (int i = 1; i <= Math.min(this.rateSamples, length); ++i)
+        {
+            int sample = (this.rateSamples - i) % length;
+            long age = time - this.RATE_SAMPLE_TIMES[sample];
+            if (age > 0 && (from < 0 || age <= RATE_WINDOW_NANOS))
+            {
+                from = sample;
+            }
+            if (age > RATE_WINDOW_NANOS)
+            {
+                break;
+            }
+        }
+        return from < 0 ? 0 : (hands - this.RATE_SAMPLE_HANDS[from]) * 1e9 / (time - this.RATE_SAMPLE_TIMES[from]);
+    }
+
+    @Override
+    public long getRoundsPlayed()
+    {
+        long rounds = 0;
+        for (LongAdder hits : this.SCORE_HITS)
+        {
+            rounds += hits.sum();
+        }
+        return rounds;
+    }
+
+    @Override
+    public long[] getScoreHits()
+    {
+        long[] hits = new long[SCORES.length];
+        for (int i = 0; i < SCORES.length; ++i)
+        {
+            hits[i] = this.SCORE_HITS[i].sum();
+        }
+        return hits;
+    }
+
+    @Override
+    public long getTokensIn()
+    {
+        return getRoundsPlayed();
+    }
+
+    @Override
+    public long getTokensOut()
+    {
+        return this.TOKENS_OUT.sum();
+    }
+
+    @Override
+    public double getReturnToPlayer()
+    {
+        long tokensIn = getTokensIn();
+        return tokensIn == 0 ? Double.NaN : (double) getTokensOut() / tokensIn;
+    }
+
+    @Override
+    public double getTheoreticalReturnToPlayer()
+    {
+        return this.theoreticalReturnToPlayer;
+    }
+
+    @Override
+    public long getDrawLatencyP50Nanos()
+    {
+        return this.DRAW_LATENCY.getPercentile(50);
+    }
+
+    @Override
+    public long getDrawLatencyP99Nanos()
+    {
+        return this.DRAW_LATENCY.getPercentile(99);
+    }
+
+    @Override
+    public long getScoreLatencyP50Nanos()
+    {
+        return this.SCORE_LATENCY.getPercentile(50);
+    }
+
+    @Override
+    public long getScoreLatencyP99Nanos()
+    {
+        return this.SCORE_LATENCY.getPercentile(99);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, as videopoker:type=GameMetrics,name=[name].
+     * @param name the name to tell these metrics apart from others, for example "PokerServer"
+     * @throws JMException if the MBean cannot be registered, for example because the name is taken
+     */
+    public void registerMBean(String name) throws JMException
+    {
+        ObjectName objectName = new ObjectName("videopoker:type=GameMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     * @param out the builder to write the metrics to
+     */
+    public void writePrometheus(StringBuilder out)
+    {
+        writeMetric(out, "videopoker_hands_dealt_total", "counter", "Hands dealt.", getHandsDealt());
+        writeMetric(out, "videopoker_hands_dealt_per_second", "gauge",
+                    "Hands dealt per second over the last " + RATE_WINDOW_SECONDS + " seconds.",
+                    getHandsDealtPerSecond());
+        writeMetric(out, "videopoker_rounds_total", "counter", "Rounds settled.", getRoundsPlayed());
+        out.append("# HELP videopoker_score_hits_total Settled rounds by Score.\n");
+        out.append("# TYPE videopoker_score_hits_total counter\n");
+        for (int i = 0; i < SCORES.length; ++i)
+        {
+            out.append("videopoker_score_hits_total{score=\"").append(SCORES[i]).append("\"} ")
+               .append(this.SCORE_HITS[i].sum()).append('\n');
+        }
+        writeMetric(out, "videopoker_tokens_in_total", "counter", "Tokens bet.", getTokensIn());
+        writeMetric(out, "videopoker_tokens_out_total", "counter", "Tokens paid out.", getTokensOut());
+        writeMetric(out, "videopoker_return_to_player", "gauge", "Tokens paid out per token bet.",
+                    getReturnToPlayer());
+        writeMetric(out, "videopoker_theoretical_return_to_player", "gauge", "Return to player of optimal play.",
+                    getTheoreticalReturnToPlayer());
+        writeLatency(out, "videopoker_draw_latency_seconds", "Time taken by sampled draws.", this.DRAW_LATENCY);
+        writeLatency(out, "videopoker_score_latency_seconds", "Time taken to score and pay sampled hands.",
+                     this.SCORE_LATENCY);
+    }
+
+    /**
+     * Starts an HTTP server which answers GET /metrics with writePrometheus(), for Prometheus to scrape.
+     * @param address the address and port to listen on
+     * @return returns the started server, which the caller stops when it is no longer needed
+     * @throws IOException if the server cannot listen on the address
+     */
+    public HttpServer startHttpServer(InetSocketAddress address) throws IOException
+    {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange ->
+        {
+            StringBuilder text = new StringBuilder(2048);
+            writePrometheus(text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Helper function for writePrometheus(). Writes one metric without labels.
+     * @param out the builder to write to
+     * @param name the name of the metric
+     * @param type the Prometheus type of the metric
+     * @param help the description of the metric
+     * @param value the value of the metric
+     */
+    private static void writeMetric(StringBuilder out, String name, String type, String help, double value)
+    {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(' ');
+        if (Double.isNaN(value))
+        {
+            out.append("NaN");
+        }
+        else if (value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            out.append((long) value);
+        }
+        else
+        {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Helper function for writePrometheus(). Writes a latency histogram as a summary with a few quantiles.
+     * @param out the builder to write to
+     * @param name the name of the metric
+     * @param help the description of the metric
+     * @param histogram the latencies
+     */
+    private static void writeLatency(StringBuilder out, String name, String help, LatencyHistogram histogram)
+    {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999})
+        {
+            out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+               .append(histogram.getPercentile(quantile * 100) / 1e9).append('\n');
+        }
+        out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+}
@@ -0,0 +1,69 @@
+package videopoker;
+
+/**
+ * The JMX view of GameMetrics. Every getter shows up as a read-only attribute of the MBean, for example in JConsole...
+ * ...under videopoker > GameMetrics.
+ */
+public interface GameMetricsMBean
+{
+    /**
+     * @return returns the amount of hands dealt
+     */
+    long getHandsDealt();
+
+    /**
+     * @return returns the hands dealt per second over about the last 10 seconds, or since the metrics were...
+     *         ...created if that is sooner
+     */
+    double getHandsDealtPerSecond();
+
+    /**
+     * @return returns the amount of rounds settled
+     */
+    long getRoundsPlayed();
+
+    /**
+     * @return returns the amount of settled rounds which ended in each Score (indexed by Score ordinal)
+     */
+    long[] getScoreHits();
+
+    /**
+     * @return returns the amount of tokens bet
+     */
+    long getTokensIn();
+
+    /**
+     * @return returns the amount of tokens paid out
+     */
+    long getTokensOut();
+
+    /**
+     * @return returns the tokens paid out per token bet so far
+     */
+    double getReturnToPlayer();
+
+    /**
+     * @return returns the return to player of optimal play, or NaN if it is not known
+     */
+    double getTheoreticalReturnToPlayer();
+
+    /**
+     * @return returns the median latency of a draw, in nanoseconds
+     */
+    long getDrawLatencyP50Nanos();
+
+    /**
+     * @return returns the 99th percentile latency of a draw, in nanoseconds
+     */
+    long getDrawLatencyP99Nanos();
+
+    /**
+     * @return returns the median latency of scoring and paying a hand, in nanoseconds
+     */
+    long getScoreLatencyP50Nanos();
+
+    /**
+     * @return returns the 99th percentile latency of scoring and paying a hand, in nanoseconds
+     */
+    long getScoreLatencyP99Nanos();
+}
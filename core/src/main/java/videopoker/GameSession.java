@@ -0,0 +1,363 @@
+package videopoker;
+
+import java.util.Arrays;
+
+/**
+ * A GameSession holds the state of one player's video poker game: the deck, the current hand, the token balance...
+ * ...and the pulls (how many hands ended in each Score). It has no input or output of its own, so the same game...
+ * ...can be driven by the console (VideoPokerMain), a server, a bot or a simulation.
+ * Each round goes through the same steps: deal() -> draw(holdMask) -> settle(), after which the next round can be dealt.
+ * The hand is kept as an array of card codes and the draw replaces the discarded cards in place.
+ * A session can also reset and shuffle its deck before every round, like a casino machine does. With a seeded...
+ * ...CardDeck, round n is then dealt from shuffle n, so seekRound() can restore any round of a game at once.
+ */
+public class GameSession
+{
+    public enum State {READY, DEALT, DRAWN}
+    public static final int CARDS_PER_HAND = 5;
+    public static final int HOLD_ALL = (1 << CARDS_PER_HAND) - 1;
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+    // Instance variables
+    private final CardDeck DECK;
+    private final GameVariant VARIANT;
+    private final int[] HAND = new int[CARDS_PER_HAND];
+    private final long[] PULLS = new long[NUM_OF_SCORES];
+    private final boolean SHUFFLE_EVERY_ROUND;
+    private State state = State.READY;
+    private long tokens;
+    private long roundsPlayed;
+    private PokerHandUtility.Score lastScore;
+    private int lastCategory = -1;
+    private int lastPayOut;
+    private GameMetrics metrics;
+    // Counts which have not been added to the metrics yet.
+    private final long[] PENDING_HITS = new long[NUM_OF_SCORES];
+    private long pendingHandsDealt;
+    private long pendingTokensOut;
+
+    /**
+     * Constructs a GameSession with a new shuffled deck, VideoPokerMain's pay out table and 100 tokens.
+     */
+    public GameSession()
+    {
+        this(new CardDeck(), VideoPokerMain.getPayOuts(), 100);
+    }
+
+    /**
+     * Constructs a GameSession. The deck is shuffled before the first round.
+     * @param deck the deck of cards to deal from
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @param tokens the player's starting amount of tokens
+     */
+    public GameSession(CardDeck deck, int[] payOuts, long tokens)
+    {
+        this(deck, payOuts, tokens, false);
+    }
+
+    /**
+     * Constructs a GameSession. The deck is shuffled before the first round.
+     * @param deck the deck of cards to deal from
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @param tokens the player's starting amount of tokens
+     * @param shuffleEveryRound true to reset and shuffle the deck before every round, false to deal from the...
+     *                          ...same shuffle until the deck runs out of cards
+     */
+    public GameSession(CardDeck deck, int[] payOuts, long tokens, boolean shuffleEveryRound)
+    {
+        this(deck, GameVariant.fromPayOuts("Custom", payOuts), tokens, shuffleEveryRound);
+    }
+
+    /**
+     * Constructs a GameSession which plays a game variant. The deck is shuffled before the first round.
+     * @param deck the deck of cards to deal from
+     * @param variant the game variant, which decides what each hand pays
+     * @param tokens the player's starting amount of tokens
+     * @param shuffleEveryRound true to reset and shuffle the deck before every round, false to deal from the...
+     *                          ...same shuffle until the deck runs out of cards
+     * @throws IllegalArgumentException if the deck has a joker but the variant does not, or the other way around
+     */
+    public GameSession(CardDeck deck, GameVariant variant, long tokens, boolean shuffleEveryRound)
+    {
+        if (deck.hasJoker() != variant.hasJoker())
+        {
+            throw new IllegalArgumentException(variant + (variant.hasJoker() ? " needs" : " cannot use")
+                                               + " a deck with a joker");
+        }
+        this.DECK = deck;
+        this.VARIANT = variant;
+        this.tokens = tokens;
+        this.SHUFFLE_EVERY_ROUND = shuffleEveryRound;
+        this.DECK.shuffleDeck();
+    }
+
+    /**
+     * Deals a new hand of cards. If the deck is running out of cards, it is reset and shuffled first.
+     */
+    public void deal()
+    {
+        checkState(State.READY);
+        this.DECK.getNewHand(this.HAND);
+        this.state = State.DEALT;
+        ++this.pendingHandsDealt;
+    }
+
+    /**
+     * @return returns true if there are enough cards left in the deck to replace any of the dealt cards
+     */
+    public boolean canDraw()
+    {
+        return this.DECK.getCardDeckSize() >= CARDS_PER_HAND;
+    }
+
+    /**
+     * Replaces every card which is not held with a card from the top of the deck.
+     * If canDraw() is false, no cards are replaced.
+     * @param holdMask the held cards, bit i is set if the card at index i of the hand is held
+     */
+    public void draw(int holdMask)
+    {
+        checkState(State.DEALT);
+        long startTime = isSampled() ? System.nanoTime() : 0;
+        if (canDraw())
+        {
+            for (int i = 0; i < CARDS_PER_HAND; ++i)
+            {
+                if ((holdMask & (1 << i)) == 0)
+                {
+                    this.HAND[i] = this.DECK.getTopCardCode();
+                }
+            }
+        }
+        this.state = State.DRAWN;
+        if (startTime != 0)
+        {
+            this.metrics.recordDrawLatency(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Scores the hand, takes the token bet and pays out the winnings, and records the pull.
+     * @return the Score of the hand
+     */
+    public PokerHandUtility.Score settle()
+    {
+        checkState(State.DRAWN);
+        long startTime = isSampled() ? System.nanoTime() : 0;
+        int pattern = this.VARIANT.handPattern(this.HAND);
+        this.lastScore = PokerHandUtility.patternScore(pattern);
+        this.lastCategory = this.VARIANT.categoryOf(pattern);
+        this.lastPayOut = this.VARIANT.getPayOut(this.lastCategory);
+        // Token must be paid prior to scoring user's hand of cards.
+        this.tokens += this.lastPayOut - 1;
+        ++this.PULLS[this.lastScore.ordinal()];
+        ++this.PENDING_HITS[this.lastScore.ordinal()];
+        this.pendingTokensOut += this.lastPayOut;
+        if (startTime != 0)
+        {
+            this.metrics.recordScoreLatency(System.nanoTime() - startTime);
+            flushMetrics();
+        }
+        ++this.roundsPlayed;
+        this.state = State.READY;
+        if (this.SHUFFLE_EVERY_ROUND)
+        {
+            this.DECK.resetDeck();
+            this.DECK.shuffleDeck();
+        }
+        return this.lastScore;
+    }
+
+    /**
+     * Jumps to the beginning of a round, as if every round before it had been played.
+     * The session must shuffle every round and deal from a seeded CardDeck that has not been shuffled by anyone...
+     * ...else, so round n is dealt from the deck's shuffle n. The pulls still count only the rounds settled here.
+     * @param round the number of the round to play next (the amount of rounds played before it)
+     * @param tokens the player's amount of tokens at the beginning of the round
+     */
+    public void seekRound(long round, long tokens)
+    {
+        checkState(State.READY);
+        if (!this.SHUFFLE_EVERY_ROUND)
+        {
+            throw new IllegalStateException("Only a session which shuffles every round can seek");
+        }
+        this.DECK.seekShuffle(round);
+        this.roundsPlayed = round;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Sorts the hand by rank, so it prints in order. This changes which index each card is at.
+     */
+    public void sortHand()
+    {
+        PokerHandUtility.sortHand(this.HAND);
+    }
+
+    /**
+     * @param index the index of the card in the hand (0 - 4)
+     * @return returns the card code (0 - 52) of a card in the hand
+     */
+    public int getCardCode(int index)
+    {
+        return this.HAND[index];
+    }
+
+    /**
+     * Copies the hand's card codes into an array.
+     * @param hand the array to copy the card codes into
+     */
+    public void getHand(int[] hand)
+    {
+        System.arraycopy(this.HAND, 0, hand, 0, CARDS_PER_HAND);
+    }
+
+    /**
+     * @return returns the step of the round the session is waiting for
+     */
+    public State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @return returns the player's amount of tokens
+     */
+    public long getTokens()
+    {
+        return this.tokens;
+    }
+
+    /**
+     * @return returns the amount of rounds settled
+     */
+    public long getRoundsPlayed()
+    {
+        return this.roundsPlayed;
+    }
+
+    /**
+     * @return returns the Score of the last settled hand, or null if no hand has been settled yet
+     */
+    public PokerHandUtility.Score getLastScore()
+    {
+        return this.lastScore;
+    }
+
+    /**
+     * @return returns the variant's category of the last settled hand, or -1 if no hand has been settled yet
+     */
+    public int getLastCategory()
+    {
+        return this.lastCategory;
+    }
+
+    /**
+     * @return returns the pay out of the last settled hand for a bet of one token
+     */
+    public int getLastPayOut()
+    {
+        return this.lastPayOut;
+    }
+
+    /**
+     * Starts or stops recording this session's rounds in a set of live metrics, which can be shared by any...
+     * ...number of sessions on any number of threads.
+     * @param metrics the metrics to record in, or null to stop recording
+     */
+    public void setMetrics(GameMetrics metrics)
+    {
+        flushMetrics();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds the counts of the rounds played since the last flush to the metrics. This happens by itself once every...
+     * ...GameMetrics.SAMPLE_INTERVAL rounds, so only a session which stops playing needs to call it.
+     */
+    public void flushMetrics()
+    {
+        if (this.metrics != null)
+        {
+            this.metrics.add(this.pendingHandsDealt, this.PENDING_HITS, this.pendingTokensOut);
+        }
+        Arrays.fill(this.PENDING_HITS, 0);
+        this.pendingHandsDealt = 0;
+        this.pendingTokensOut = 0;
+    }
+
+    /**
+     * @return returns the game variant the session plays
+     */
+    public GameVariant getVariant()
+    {
+        return this.VARIANT;
+    }
+
+    /**
+     * @param score the Score to look up
+     * @return returns how many hands ended in the given Score
+     */
+    public long getPulls(PokerHandUtility.Score score)
+    {
+        return this.PULLS[score.ordinal()];
+    }
+
+    /**
+     * @return returns a copy of the pulls (indexed by Score ordinal)
+     */
+    public long[] getPulls()
+    {
+        return this.PULLS.clone();
+    }
+
+    /**
+     * Converts a player's response into a hold mask. The response can be "Keep" to keep the hand of cards,...
+     * ..."New Hand" to replace every card, or a sequence of numbers which represent which cards to replace...
+     * ...(Example: "1 2 4" would replace the first, second, and fourth card).
+     * @param response the player's response
+     * @return the hold mask, or -1 if the response holds none of the expected inputs
+     */
+    public static int parseHoldMask(String response)
+    {
+        if (response.equalsIgnoreCase("Keep"))
+        {
+            return HOLD_ALL;
+        }
+        if (response.equalsIgnoreCase("New Hand"))
+        {
+            return 0;
+        }
+        int discardMask = 0;
+        for (int i = 0; i < response.length(); ++i)
+        {
+            int digit = Character.digit(response.charAt(i), 10) - 1;
+            if (digit >= 0 && digit < CARDS_PER_HAND)
+            {
+                discardMask |= 1 << digit;
+            }
+        }
+        return discardMask == 0 ? -1 : HOLD_ALL & ~discardMask;
+    }
+
+    /**
+     * @return returns true if this round's latencies are measured, which is one round in every...
+     * ...GameMetrics.SAMPLE_INTERVAL when the session records metrics
+     */
+    private boolean isSampled()
+    {
+        return this.metrics != null && (this.roundsPlayed & (GameMetrics.SAMPLE_INTERVAL - 1)) == 0;
+    }
+
+    /**
+     * Checks that the session is at the expected step of the round.
+     * @param expected the expected step
+     */
+    private void checkState(State expected)
+    {
+        if (this.state != expected)
+        {
+            throw new IllegalStateException("Expected the session to be " + expected + " but it is " + this.state);
+        }
+    }
+}
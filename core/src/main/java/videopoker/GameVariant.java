@@ -0,0 +1,471 @@
+package videopoker;
+
+import java.util.Locale;
+
+/**
+ * A GameVariant defines the rules of one video poker machine: which categories of hands it pays, in which order...
+ * ...they are checked, and what each one pays. Each category has a rule which looks at a hand's Score, primary...
+ * ...rank and kicker rank (see PokerHandUtility.handPattern()), so a variant can pay only pairs of Jacks or better,...
+ * ...or pay four Aces more than four Kings, or pay four Aces more with a 2, 3 or 4 as kicker.
+ * The rules are only run when the variant is constructed, once for every hand pattern, to compile a lookup table...
+ * ...from hand pattern to category. Scoring a hand is then one handPattern() call plus one table lookup, no matter...
+ * ...how many rules the variant has.
+ * Variants with wild cards (Deuces Wild, Joker Poker) work the same way: the hand pattern already holds the best...
+ * ...hand the wild cards can make and how many wild cards there are, so a rule can tell a wild Royal Flush from...
+ * ...a natural one.
+ */
+public final class GameVariant
+{
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+    private static final int ACE = Card.Ranks.ACE.ordinal();
+    private static final int KING = Card.Ranks.KING.ordinal();
+    private static final int JACK = Card.Ranks.JACK.ordinal();
+    private static final int FOUR = Card.Ranks.FOUR.ordinal();
+    private static final int TWO = Card.Ranks.TWO.ordinal();
+    // The card mask of the four 2s.
+    private static final long DEUCES_MASK = Card.mask(Card.encode(Card.Ranks.TWO, Card.Suits.HEARTS))
+            | Card.mask(Card.encode(Card.Ranks.TWO, Card.Suits.DIAMONDS))
+            | Card.mask(Card.encode(Card.Ranks.TWO, Card.Suits.SPADES))
+            | Card.mask(Card.encode(Card.Ranks.TWO, Card.Suits.CLUBS));
+
+    // The machine VideoPokerMain has always played: every pair pays, by VideoPokerMain's pay out table.
+    public static final GameVariant ANY_PAIR = fromPayOuts("Any Pair", VideoPokerMain.getPayOuts());
+    // "9/6" Jacks or Better (the Full House pays 9 and the Flush pays 6).
+    public static final GameVariant JACKS_OR_BETTER = new GameVariant("Jacks or Better",
+            new Category("Royal Flush", 800, PokerHandUtility.Score.ROYAL_FLUSH),
+            new Category("Straight Flush", 50, PokerHandUtility.Score.STRAIGHT_FLUSH),
+            new Category("Four of a Kind", 25, PokerHandUtility.Score.FOUR_OF_A_KIND),
+            new Category("Full House", 9, PokerHandUtility.Score.FULL_HOUSE),
+            new Category("Flush", 6, PokerHandUtility.Score.FLUSH),
+            new Category("Straight", 4, PokerHandUtility.Score.STRAIGHT),
+            new Category("Three of a Kind", 3, PokerHandUtility.Score.THREE_OF_A_KIND),
+            new Category("Two Pairs", 2, PokerHandUtility.Score.TWO_PAIRS),
+            new Category("Jacks or Better", 1, (score, primary, kicker, wilds) -> isPair(score, primary, JACK)),
+            new Category("Nothing", 0, (score, primary, kicker, wilds) -> true));
+    // "8/5" Bonus Poker: four of a kind pays by the rank of the four cards.
+    public static final GameVariant BONUS_POKER = new GameVariant("Bonus Poker",
+            new Category("Royal Flush", 800, PokerHandUtility.Score.ROYAL_FLUSH),
+            new Category("Straight Flush", 50, PokerHandUtility.Score.STRAIGHT_FLUSH),
+            new Category("Four Aces", 80, (score, primary, kicker, wilds) ->
+                    isFourOfAKind(score, primary, ACE, ACE)),
+            new Category("Four 2s - 4s", 40, (score, primary, kicker, wilds) ->
+                    isFourOfAKind(score, primary, TWO, FOUR)),
+            new Category("Four 5s - Kings", 25, PokerHandUtility.Score.FOUR_OF_A_KIND),
+            new Category("Full House", 8, PokerHandUtility.Score.FULL_HOUSE),
+            new Category("Flush", 5, PokerHandUtility.Score.FLUSH),
+            new Category("Straight", 4, PokerHandUtility.Score.STRAIGHT),
+            new Category("Three of a Kind", 3, PokerHandUtility.Score.THREE_OF_A_KIND),
+            new Category("Two Pairs", 2, PokerHandUtility.Score.TWO_PAIRS),
+            new Category("Jacks or Better", 1, (score, primary, kicker, wilds) -> isPair(score, primary, JACK)),
+            new Category("Nothing", 0, (score, primary, kicker, wilds) -> true));
+    // "9/6" Double Double Bonus: four Aces and four 2s - 4s pay even more with a low kicker.
+    public static final GameVariant DOUBLE_DOUBLE_BONUS = new GameVariant("Double Double Bonus",
+            new Category("Royal Flush", 800, PokerHandUtility.Score.ROYAL_FLUSH),
+            new Category("Straight Flush", 50, PokerHandUtility.Score.STRAIGHT_FLUSH),
+            new Category("Four Aces + 2 - 4", 400, (score, primary, kicker, wilds) ->
+                    isFourOfAKind(score, primary, ACE, ACE) && kicker >= TWO && kicker <= FOUR),
+            new Category("Four 2s - 4s + A - 4", 160, (score, primary, kicker, wilds) ->
+                    isFourOfAKind(score, primary, TWO, FOUR) && (kicker == ACE || kicker <= FOUR)),
+            new Category("Four Aces", 160, (score, primary, kicker, wilds) ->
+                    isFourOfAKind(score, primary, ACE, ACE)),
+            new Category("Four 2s - 4s", 80, (score, primary, kicker, wilds) ->
+                    isFourOfAKind(score, primary, TWO, FOUR)),
+            new Category("Four 5s - Kings", 50, PokerHandUtility.Score.FOUR_OF_A_KIND),
+            new Category("Full House", 9, PokerHandUtility.Score.FULL_HOUSE),
+            new Category("Flush", 6, PokerHandUtility.Score.FLUSH),
+            new Category("Straight", 4, PokerHandUtility.Score.STRAIGHT),
+            new Category("Three of a Kind", 3, PokerHandUtility.Score.THREE_OF_A_KIND),
+            new Category("Two Pairs", 1, PokerHandUtility.Score.TWO_PAIRS),
+            new Category("Jacks or Better", 1, (score, primary, kicker, wilds) -> isPair(score, primary, JACK)),
+            new Category("Nothing", 0, (score, primary, kicker, wilds) -> true));
+    // "Full pay" Deuces Wild: the four 2s are wild, and the lowest paying hand is three of a kind.
+    public static final GameVariant DEUCES_WILD = new GameVariant("Deuces Wild", DEUCES_MASK,
+            new Category("Natural Royal Flush", 800, (score, primary, kicker, wilds) ->
+                    score == PokerHandUtility.Score.ROYAL_FLUSH && wilds == 0),
+            new Category("Four Deuces", 200, (score, primary, kicker, wilds) -> wilds == 4),
+            new Category("Wild Royal Flush", 25, PokerHandUtility.Score.ROYAL_FLUSH),
+            new Category("Five of a Kind", 15, (score, primary, kicker, wilds) ->
+                    isFiveOfAKind(score, primary, kicker)),
+            new Category("Straight Flush", 9, PokerHandUtility.Score.STRAIGHT_FLUSH),
+            new Category("Four of a Kind", 5, PokerHandUtility.Score.FOUR_OF_A_KIND),
+            new Category("Full House", 3, PokerHandUtility.Score.FULL_HOUSE),
+            new Category("Flush", 2, PokerHandUtility.Score.FLUSH),
+            new Category("Straight", 2, PokerHandUtility.Score.STRAIGHT),
+            new Category("Three of a Kind", 1, PokerHandUtility.Score.THREE_OF_A_KIND),
+            new Category("Nothing", 0, (score, primary, kicker, wilds) -> true));
+    // Joker Poker (Kings or Better): a 53 card deck whose joker is wild.
+    public static final GameVariant JOKER_POKER = new GameVariant("Joker Poker", Card.mask(Card.JOKER),
+            new Category("Natural Royal Flush", 800, (score, primary, kicker, wilds) ->
+                    score == PokerHandUtility.Score.ROYAL_FLUSH && wilds == 0),
+            new Category("Five of a Kind", 200, (score, primary, kicker, wilds) ->
+                    isFiveOfAKind(score, primary, kicker)),
+            new Category("Wild Royal Flush", 100, PokerHandUtility.Score.ROYAL_FLUSH),
+            new Category("Straight Flush", 50, PokerHandUtility.Score.STRAIGHT_FLUSH),
+            new Category("Four of a Kind", 20, PokerHandUtility.Score.FOUR_OF_A_KIND),
+            new Category("Full House", 7, PokerHandUtility.Score.FULL_HOUSE),
+            new Category("Flush", 5, PokerHandUtility.Score.FLUSH),
+            new Category("Straight", 3, PokerHandUtility.Score.STRAIGHT),
+            new Category("Three of a Kind", 2, PokerHandUtility.Score.THREE_OF_A_KIND),
+            new Category("Two Pairs", 1, PokerHandUtility.Score.TWO_PAIRS),
+            new Category("Kings or Better", 1, (score, primary, kicker, wilds) -> isPair(score, primary, KING)),
+            new Category("Nothing", 0, (score, primary, kicker, wilds) -> true));
+    private static final GameVariant[] VARIANTS = {ANY_PAIR, JACKS_OR_BETTER, BONUS_POKER, DOUBLE_DOUBLE_BONUS,
+            DEUCES_WILD, JOKER_POKER};
+
+    // Instance variables
+    private final String NAME;
+    private final String[] CATEGORY_NAMES;
+    private final int[] PAY_OUTS;
+    private final long WILD_MASK;
+    // The category of every hand pattern, indexed by pattern.
+    private final byte[] PATTERN_CATEGORIES = new byte[PokerHandUtility.NUM_OF_PATTERNS];
+
+    /**
+     * Decides whether a hand belongs to a category.
+     */
+    @FunctionalInterface
+    public interface Rule
+    {
+        /**
+         * @param score the Score of the hand
+         * @param primaryRank the rank (ordinal) of the hand's largest group of cards, or its highest card
+         * @param kickerRank the highest rank (ordinal) outside of that group, which is the primary rank for a...
+         *                   ...Five of a Kind
+         * @param wilds the number of wild cards in the hand
+         * @return returns true if the hand belongs to the category
+         */
+        boolean matches(PokerHandUtility.Score score, int primaryRank, int kickerRank, int wilds);
+    }
+
+    /**
+     * A category of hands which a variant pays: its name, its pay out for a bet of one token and its rule.
+     */
+    public static final class Category
+    {
+        private final String NAME;
+        private final int PAY_OUT;
+        private final Rule RULE;
+
+        /**
+         * @param name the name of the category, as it is shown to the player
+         * @param payOut the pay out for a bet of one token (including the token bet)
+         * @param rule the rule which decides whether a hand belongs to the category
+         */
+        public Category(String name, int payOut, Rule rule)
+        {
+            this.NAME = name;
+            this.PAY_OUT = payOut;
+            this.RULE = rule;
+        }
+
+        /**
+         * Constructs a category of every hand with a given Score.
+         * @param name the name of the category, as it is shown to the player
+         * @param payOut the pay out for a bet of one token (including the token bet)
+         * @param score the Score of the hands in the category
+         */
+        public Category(String name, int payOut, PokerHandUtility.Score score)
+        {
+            this(name, payOut, (handScore, primary, kicker, wilds) -> handScore == score);
+        }
+    }
+
+    /**
+     * Constructs a variant and compiles its lookup table. A hand belongs to the first category whose rule it...
+     * ...matches, so the categories must be listed from the best hand to the worst, and every hand must match one.
+     * @param name the name of the variant
+     * @param categories the categories of the variant, best first
+     * @throws IllegalArgumentException if there are more than 127 categories, or a hand matches none of them
+     */
+    public GameVariant(String name, Category... categories)
+    {
+        this(name, 0, categories);
+    }
+
+    /**
+     * Constructs a variant with wild cards and compiles its lookup table, which also holds the best hand every mix...
+     * ...of natural and wild cards can make. A variant whose wild cards include the joker is played with a 53 card deck.
+     * @param name the name of the variant
+     * @param wildMask the card mask of the wild cards (up to four of them)
+     * @param categories the categories of the variant, best first
+     * @throws IllegalArgumentException if there are more than 127 categories or four wild cards, or a hand matches...
+     *                                  ...none of the categories
+     */
+    public GameVariant(String name, long wildMask, Category... categories)
+    {
+        if (Long.bitCount(wildMask) > PokerHandUtility.MAX_WILDS)
+        {
+            throw new IllegalArgumentException("A variant can have at most " + PokerHandUtility.MAX_WILDS
+                                               + " wild cards");
+        }
+        if (categories.length > Byte.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("A variant can have at most " + Byte.MAX_VALUE + " categories");
+        }
+        this.NAME = name;
+        this.WILD_MASK = wildMask;
+        this.CATEGORY_NAMES = new String[categories.length];
+        this.PAY_OUTS = new int[categories.length];
+        for (int i = 0; i < categories.length; ++i)
+        {
+            this.CATEGORY_NAMES[i] = categories[i].NAME;
+            this.PAY_OUTS[i] = categories[i].PAY_OUT;
+        }
+        int numOfPatterns = (Long.bitCount(wildMask) + 1) << 12;
+        for (int pattern = 0; pattern < numOfPatterns; ++pattern)
+        {
+            int primaryRank = PokerHandUtility.patternPrimaryRank(pattern);
+            int kickerRank = PokerHandUtility.patternKickerRank(pattern);
+            // Skip the numbers which are not the pattern of any hand.
+            if (((pattern >>> 8) & 0xF) >= NUM_OF_SCORES || primaryRank >= Card.NUM_OF_RANKS
+                || kickerRank >= Card.NUM_OF_RANKS)
+            {
+                continue;
+            }
+            PokerHandUtility.Score score = PokerHandUtility.patternScore(pattern);
+            int wilds = PokerHandUtility.patternWilds(pattern);
+            int category = 0;
+            while (!categories[category].RULE.matches(score, primaryRank, kickerRank, wilds))
+            {
+                if (++category == categories.length)
+                {
+                    throw new IllegalArgumentException(name + " has no category for " + score + " (primary rank "
+                                                       + primaryRank + ", kicker rank " + kickerRank + ", "
+                                                       + wilds + " wild cards)");
+                }
+            }
+            this.PATTERN_CATEGORIES[pattern] = (byte) category;
+        }
+    }
+
+    /**
+     * Constructs a variant which pays by Score alone, with one category per Score.
+     * @param name the name of the variant
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @return returns the variant
+     */
+    public static GameVariant fromPayOuts(String name, int[] payOuts)
+    {
+        PokerHandUtility.Score[] scores = PokerHandUtility.Score.values();
+        Category[] categories = new Category[scores.length];
+        for (int i = 0; i < scores.length; ++i)
+        {
+            // Best first, so the categories are in the opposite order of the Scores.
+            PokerHandUtility.Score score = scores[scores.length - 1 - i];
+            categories[i] = new Category(score.getName(), payOuts[score.ordinal()], score);
+        }
+        return new GameVariant(name, categories);
+    }
+
+    /**
+     * @return returns every built in variant
+     */
+    public static GameVariant[] values()
+    {
+        return VARIANTS.clone();
+    }
+
+    /**
+     * Finds a built in variant by name. Case, spaces, dashes and underscores are ignored, so "jacks-or-better"...
+     * ...and "JACKS_OR_BETTER" both find Jacks or Better.
+     * @param name the name of the variant
+     * @return returns the variant
+     * @throws IllegalArgumentException if there is no variant with that name
+     */
+    public static GameVariant valueOf(String name)
+    {
+        for (GameVariant variant : VARIANTS)
+        {
+            if (simplifyName(variant.NAME).equals(simplifyName(name)))
+            {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown game variant: " + name);
+    }
+
+    /**
+     * @return returns the name of the variant
+     */
+    public String getName()
+    {
+        return this.NAME;
+    }
+
+    /**
+     * @return returns the amount of categories
+     */
+    public int getNumOfCategories()
+    {
+        return this.PAY_OUTS.length;
+    }
+
+    /**
+     * @param category the index of the category
+     * @return returns the name of the category
+     */
+    public String getCategoryName(int category)
+    {
+        return this.CATEGORY_NAMES[category];
+    }
+
+    /**
+     * @param category the index of the category
+     * @return returns the pay out of the category for a bet of one token
+     */
+    public int getPayOut(int category)
+    {
+        return this.PAY_OUTS[category];
+    }
+
+    /**
+     * @return returns the card mask of the wild cards, 0 if there are none
+     */
+    public long getWildMask()
+    {
+        return this.WILD_MASK;
+    }
+
+    /**
+     * @return returns true if the variant is played with a 53 card deck, whose joker is wild
+     */
+    public boolean hasJoker()
+    {
+        return (this.WILD_MASK & Card.mask(Card.JOKER)) != 0;
+    }
+
+    /**
+     * @param hand a hand of five card codes (0 - 52), which does not need to be sorted
+     * @return returns the pattern of the hand, counting the variant's wild cards as wild
+     */
+    public int handPattern(int[] hand)
+    {
+        if (this.WILD_MASK == 0)
+        {
+            return PokerHandUtility.handPattern(hand);
+        }
+        return PokerHandUtility.handPattern(hand, this.WILD_MASK);
+    }
+
+    /**
+     * @param hand the card mask of a hand of five cards
+     * @return returns the pattern of the hand, counting the variant's wild cards as wild
+     */
+    public int handPattern(long hand)
+    {
+        if (this.WILD_MASK == 0)
+        {
+            return PokerHandUtility.handPattern(hand);
+        }
+        return PokerHandUtility.handPattern(hand, this.WILD_MASK);
+    }
+
+    /**
+     * @param pattern a hand pattern (see handPattern())
+     * @return returns the index of the category of hands with the pattern
+     */
+    public int categoryOf(int pattern)
+    {
+        return this.PATTERN_CATEGORIES[pattern];
+    }
+
+    /**
+     * @param hand a hand of five card codes (0 - 52), which does not need to be sorted
+     * @return returns the index of the hand's category
+     */
+    public int categoryOf(int[] hand)
+    {
+        return this.PATTERN_CATEGORIES[handPattern(hand)];
+    }
+
+    /**
+     * @param hand the card mask of a hand of five cards
+     * @return returns the index of the hand's category
+     */
+    public int categoryOf(long hand)
+    {
+        return this.PATTERN_CATEGORIES[handPattern(hand)];
+    }
+
+    /**
+     * @param hand a hand of five card codes (0 - 52), which does not need to be sorted
+     * @return returns the pay out of the hand for a bet of one token
+     */
+    public int payOut(int[] hand)
+    {
+        return this.PAY_OUTS[categoryOf(hand)];
+    }
+
+    /**
+     * Scores a batch of hands at once, such as all the hands of a multi-hand round.
+     * @param hands the card masks of the hands of five cards
+     * @param categories the array to write the index of each hand's category to
+     * @param count the amount of hands to score
+     * @return returns the total pay out of the hands for a bet of one token each
+     */
+    public long scoreHands(long[] hands, int[] categories, int count)
+    {
+        long payOut = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            int category = this.PATTERN_CATEGORIES[handPattern(hands[i])];
+            categories[i] = category;
+            payOut += this.PAY_OUTS[category];
+        }
+        return payOut;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.NAME;
+    }
+
+    /**
+     * Helper function for the built in rules.
+     * @param score the Score of the hand
+     * @param primaryRank the primary rank of the hand
+     * @param lowestRank the lowest rank of the four cards
+     * @param highestRank the highest rank of the four cards
+     * @return returns true if the hand is a four of a kind of a rank from lowestRank to highestRank
+     */
+    private static boolean isFourOfAKind(PokerHandUtility.Score score, int primaryRank, int lowestRank,
+                                         int highestRank)
+    {
+        return score == PokerHandUtility.Score.FOUR_OF_A_KIND && primaryRank >= lowestRank
+               && primaryRank <= highestRank;
+    }
+
+    /**
+     * Helper function for the built in rules.
+     * @param score the Score of the hand
+     * @param primaryRank the primary rank of the hand
+     * @param lowestRank the lowest rank of pair which pays
+     * @return returns true if the hand is one pair of lowestRank or higher
+     */
+    private static boolean isPair(PokerHandUtility.Score score, int primaryRank, int lowestRank)
+    {
+        return score == PokerHandUtility.Score.ONE_PAIR && primaryRank >= lowestRank;
+    }
+
+    /**
+     * Helper function for the built in rules.
+     * @param score the Score of the hand
+     * @param primaryRank the primary rank of the hand
+     * @param kickerRank the kicker rank of the hand
+     * @return returns true if the hand is a Five of a Kind
+     */
+    private static boolean isFiveOfAKind(PokerHandUtility.Score score, int primaryRank, int kickerRank)
+    {
+        return score == PokerHandUtility.Score.FOUR_OF_A_KIND && primaryRank == kickerRank;
+    }
+
+    /**
+     * @param name the name of a variant
+     * @return returns the name in lower case, without spaces, dashes or underscores
+     */
+    private static String simplifyName(String name)
+    {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+    }
+}
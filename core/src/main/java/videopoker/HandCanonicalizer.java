@@ -0,0 +1,167 @@
+package videopoker;
+
+import java.util.Arrays;
+
+/**
+ * This is a utility class which groups hands of cards that only differ by their suits.
+ * Swapping suits around (for example, making every Heart a Spade and every Spade a Heart) never changes how a hand
+ * scores or how it should be played, so the 2,598,960 five card hands fall into only 134,459 classes.
+ * Each class is identified by a canonical key: the hand's cards after its suits are renamed so that the suit holding
+ * the highest ranks comes first. The key is a 52 bit mask with bit (suit * 13 + rank) set for each card.
+ */
+public class HandCanonicalizer
+{
+    public static final int NUM_OF_CLASSES = 134459;
+    private static final int NUM_OF_SUITS = Card.Suits.values().length;
+
+    /**
+     * Holds the canonical keys of every class in ascending order, along with how many hands belong to each class.
+     * They are only built the first time they are needed.
+     */
+    private static class Classes
+    {
+        private static final long[] KEYS = new long[NUM_OF_CLASSES];
+        private static final int[] SIZES = new int[NUM_OF_CLASSES];
+
+        static
+        {
+            long[] keys = new long[2598960];
+            int[] hand = new int[5];
+            int count = 0;
+            for (hand[0] = 0; hand[0] < Card.NUM_OF_CODES; ++hand[0])
+            {
+                for (hand[1] = hand[0] + 1; hand[1] < Card.NUM_OF_CODES; ++hand[1])
+                {
+                    for (hand[2] = hand[1] + 1; hand[2] < Card.NUM_OF_CODES; ++hand[2])
+                    {
+                        for (hand[3] = hand[2] + 1; hand[3] < Card.NUM_OF_CODES; ++hand[3])
+                        {
+                            for (hand[4] = hand[3] + 1; hand[4] < Card.NUM_OF_CODES; ++hand[4])
+                            {
+                                keys[count++] = canonicalKey(hand);
+                            }
+                        }
+                    }
+                }
+            }
+            Arrays.sort(keys);
+
+            int numOfClasses = 0;
+            for (int i = 0; i < keys.length; ++i)
+            {
+                if (i == 0 || keys[i] != keys[i - 1])
+                {
+                    KEYS[numOfClasses++] = keys[i];
+                }
+                ++SIZES[numOfClasses - 1];
+            }
+        }
+    }
+
+    /**
+     * Finds the canonical key of a hand of cards.
+     * @param hand the hand of card codes (0 - 51), in any order
+     * @return the canonical key of the hand's class
+     */
+    public static long canonicalKey(int[] hand)
+    {
+        int[] suitMasks = suitMasks(hand);
+        long key = 0;
+        for (int suit = 0; suit < NUM_OF_SUITS; ++suit)
+        {
+            key |= (long) suitMasks[suit] << (Card.NUM_OF_RANKS * canonicalSuit(suitMasks, suit));
+        }
+        return key;
+    }
+
+    /**
+     * Renames the suits of a hand of cards the same way canonicalKey() does.
+     * @param hand the hand of card codes (0 - 51), in any order
+     * @param canonicalHand the array to fill with the renamed card codes, in the same order as the hand
+     */
+    public static void canonicalHand(int[] hand, int[] canonicalHand)
+    {
+        int[] suitMasks = suitMasks(hand);
+        for (int i = 0; i < hand.length; ++i)
+        {
+            int suit = hand[i] / Card.NUM_OF_RANKS;
+            canonicalHand[i] = canonicalSuit(suitMasks, suit) * Card.NUM_OF_RANKS + hand[i] % Card.NUM_OF_RANKS;
+        }
+    }
+
+    /**
+     * Finds the class index (0 - 134,458) of a hand of cards. Classes are numbered in order of their canonical keys.
+     * @param hand the hand of card codes (0 - 51), in any order
+     * @return the index of the hand's class
+     */
+    public static int classIndex(int[] hand)
+    {
+        return Arrays.binarySearch(Classes.KEYS, canonicalKey(hand));
+    }
+
+    /**
+     * @param classIndex the index of a class (0 - 134,458)
+     * @return returns the canonical key of the class
+     */
+    public static long classKey(int classIndex)
+    {
+        return Classes.KEYS[classIndex];
+    }
+
+    /**
+     * @param classIndex the index of a class (0 - 134,458)
+     * @return returns how many of the 2,598,960 hands belong to the class
+     */
+    public static int classSize(int classIndex)
+    {
+        return Classes.SIZES[classIndex];
+    }
+
+    /**
+     * Fills an array with the cards of a canonical key in ascending order.
+     * @param key the canonical key (or any other mask of cards)
+     * @param hand the array to fill with card codes
+     */
+    public static void keyToHand(long key, int[] hand)
+    {
+        for (int i = 0; i < hand.length; ++i)
+        {
+            hand[i] = Long.numberOfTrailingZeros(key);
+            key &= key - 1;
+        }
+    }
+
+    /**
+     * @param hand the hand of card codes (0 - 51)
+     * @return returns a 13 bit rank mask for each suit of the hand
+     */
+    private static int[] suitMasks(int[] hand)
+    {
+        int[] suitMasks = new int[NUM_OF_SUITS];
+        for (int code : hand)
+        {
+            suitMasks[code / Card.NUM_OF_RANKS] |= 1 << (code % Card.NUM_OF_RANKS);
+        }
+        return suitMasks;
+    }
+
+    /**
+     * Finds the new suit of a suit after renaming. Suits are renamed in descending order of their rank masks,...
+     * ...so the suit with the highest rank mask becomes suit 0. Suits with equal rank masks keep their order.
+     * @param suitMasks the 13 bit rank mask of each suit
+     * @param suit the suit to rename
+     * @return the new suit (0 - 3)
+     */
+    private static int canonicalSuit(int[] suitMasks, int suit)
+    {
+        int canonicalSuit = 0;
+        for (int other = 0; other < NUM_OF_SUITS; ++other)
+        {
+            if (suitMasks[other] > suitMasks[suit] || (suitMasks[other] == suitMasks[suit] && other < suit))
+            {
+                ++canonicalSuit;
+            }
+        }
+        return canonicalSuit;
+    }
+}
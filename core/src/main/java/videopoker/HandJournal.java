@@ -0,0 +1,311 @@
+package videopoker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An append-only journal which records every played round, for regulated deployments.
+ * Each round is one fixed-width, bit-packed record of RECORD_SIZE bytes (a card code fits in 6 bits):
+ *   word 0: session id
+ *   word 1: RNG seed of the session's deck
+ *   word 2: round number within the session
+ *   word 3: dealt cards (5 x 6 bits) | final cards (5 x 6 bits) << 30 | Score ordinal (4 bits) << 60
+ *   word 4: hold mask (5 bits) | pay out (16 bits) << 5 | token balance after the round (43 bits, signed) << 21
+ * Records are written through a memory-mapped file, so appending a record is a handful of memory writes.
+ * The journal is split into segment files (journal-00000000.log, journal-00000001.log, ...) which each start with...
+ * ...a header of MAGIC, VERSION, RECORD_SIZE and a reserved int. A new segment is started when one fills up.
+ * Writes are made durable in groups: after every COMMIT_EVERY records, when a segment is full, and when commit()...
+ * ...or close() is called, the records written since the last group are handed to a committer thread which forces...
+ * ...them to disk. Appending never waits for the disk, while commit() and close() wait until every record written...
+ * ...so far is on disk. If forcing fails, the next append() throws the error.
+ * A word 3 of zero (which no real hand has) marks the end of the written records in a segment.
+ */
+public class HandJournal implements Closeable
+{
+    public static final int MAGIC = 0x56504A4E;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 5 * Long.BYTES;
+    private static final int CARD_BITS = 6;
+    private static final int HAND_BITS = 5 * CARD_BITS;
+    private static final int PAY_OUT_BITS = 16;
+    private static final int HOLD_BITS = 5;
+    // Instance variables
+    private final Path DIRECTORY;
+    private final long SEGMENT_SIZE;
+    private final int COMMIT_EVERY;
+    // Forces the handed off records to disk one group at a time, in the order they were written.
+    private final ExecutorService COMMITTER = Executors.newSingleThreadExecutor(runnable ->
+    {
+        Thread committer = new Thread(runnable, "hand-journal-committer");
+        committer.setDaemon(true);
+        return committer;
+    });
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private int uncommittedRecords;
+    // The position in the segment of the first record which has not been handed to the committer yet.
+    private int committedPosition;
+    private boolean closed;
+    private volatile IOException commitFailure;
+
+    /**
+     * Opens a journal in a directory, starting a new segment after the last existing one.
+     * @param directory the directory to write the segment files to (created if needed)
+     * @param recordsPerSegment how many records each segment file holds
+     * @param commitEvery how many records are written between forcing the segment to disk
+     * @throws IOException if the directory or the first segment cannot be created
+     */
+    public HandJournal(Path directory, int recordsPerSegment, int commitEvery) throws IOException
+    {
+        this.DIRECTORY = directory;
+        this.SEGMENT_SIZE = HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE;
+        this.COMMIT_EVERY = commitEvery;
+        Files.createDirectories(directory);
+        this.segmentNumber = 0;
+        while (Files.exists(segmentPath(directory, this.segmentNumber)))
+        {
+            ++this.segmentNumber;
+        }
+        openSegment();
+    }
+
+    /**
+     * Appends one round to the journal.
+     * @param sessionId the session the round was played in
+     * @param seed the RNG seed of the session's deck
+     * @param round the round number within the session (0 for the first round)
+     * @param dealtHand the five dealt card codes
+     * @param holdMask the held cards, bit i is set if the dealt card at index i was held
+     * @param finalHand the five card codes after the draw
+     * @param score the Score of the final hand
+     * @param payOut the tokens paid out for the round
+     * @param tokens the session's token balance after the round
+     * @throws IOException if a new segment cannot be created, earlier records could not be forced to disk, or the...
+     *         ...journal is closed
+     */
+    public synchronized void append(long sessionId, long seed, long round, int[] dealtHand, int holdMask,
+                                    int[] finalHand, PokerHandUtility.Score score, int payOut, long tokens)
+            throws IOException
+    {
+        if (this.commitFailure != null)
+        {
+            throw this.commitFailure;
+        }
+        if (this.closed)
+        {
+            throw new IOException("The hand journal is closed");
+        }
+        if (this.segment.remaining() < RECORD_SIZE)
+        {
+            handOff();
+            ++this.segmentNumber;
+            openSegment();
+        }
+        long cards = packHand(dealtHand) | packHand(finalHand) << HAND_BITS | (long) score.ordinal() << (2 * HAND_BITS);
+        long result = holdMask | (long) payOut << HOLD_BITS | tokens << (HOLD_BITS + PAY_OUT_BITS);
+        this.segment.putLong(sessionId).putLong(seed).putLong(round).putLong(cards).putLong(result);
+        if (++this.uncommittedRecords >= this.COMMIT_EVERY)
+        {
+            handOff();
+        }
+    }
+
+    /**
+     * Forces every record written so far to disk, and waits until it is done. Appending carries on meanwhile.
+     * @throws UncheckedIOException if a record could not be forced to disk
+     */
+    public void commit()
+    {
+        Future<?> forced;
+        synchronized (this)
+        {
+            forced = handOff();
+        }
+        awaitCommit(forced);
+    }
+
+    /**
+     * Commits the records written so far and stops the committer thread. Nothing can be appended afterwards.
+     * The last segment keeps its unused space, which reads as the end marker.
+     * @throws UncheckedIOException if a record could not be forced to disk
+     */
+    @Override
+    public void close()
+    {
+        Future<?> forced;
+        synchronized (this)
+        {
+            if (this.closed)
+            {
+                return;
+            }
+            this.closed = true;
+            forced = handOff();
+        }
+        try
+        {
+            awaitCommit(forced);
+        }
+        finally
+        {
+            this.COMMITTER.shutdown();
+        }
+    }
+
+    /**
+     * @param directory the journal's directory
+     * @param segmentNumber the number of the segment
+     * @return returns the path of a segment file
+     */
+    public static Path segmentPath(Path directory, int segmentNumber)
+    {
+        return directory.resolve(String.format("journal-%08d.log", segmentNumber));
+    }
+
+    /**
+     * @param cards word 3 of a record
+     * @param index the index of the card (0 - 4)
+     * @return returns the code of a dealt card
+     */
+    public static int dealtCard(long cards, int index)
+    {
+        return (int) (cards >>> (index * CARD_BITS)) & ((1 << CARD_BITS) - 1);
+    }
+
+    /**
+     * @param cards word 3 of a record
+     * @param index the index of the card (0 - 4)
+     * @return returns the code of a card of the final hand
+     */
+    public static int finalCard(long cards, int index)
+    {
+        return dealtCard(cards >>> HAND_BITS, index);
+    }
+
+    /**
+     * @param cards word 3 of a record
+     * @return returns the Score ordinal of the final hand
+     */
+    public static int score(long cards)
+    {
+        return (int) (cards >>> (2 * HAND_BITS));
+    }
+
+    /**
+     * @param result word 4 of a record
+     * @return returns the hold mask
+     */
+    public static int holdMask(long result)
+    {
+        return (int) result & ((1 << HOLD_BITS) - 1);
+    }
+
+    /**
+     * @param result word 4 of a record
+     * @return returns the pay out
+     */
+    public static int payOut(long result)
+    {
+        return (int) (result >>> HOLD_BITS) & ((1 << PAY_OUT_BITS) - 1);
+    }
+
+    /**
+     * @param result word 4 of a record
+     * @return returns the token balance after the round
+     */
+    public static long tokens(long result)
+    {
+        return result >> (HOLD_BITS + PAY_OUT_BITS);
+    }
+
+    /**
+     * Hands the records written since the last hand off to the committer thread. Must be called holding the lock.
+     * @return returns the Future which is done once those records, and every record before them, are on disk
+     */
+    private Future<?> handOff()
+    {
+        MappedByteBuffer dirtySegment = this.segment;
+        int from = this.committedPosition;
+        int length = dirtySegment.position() - from;
+        this.committedPosition = dirtySegment.position();
+        this.uncommittedRecords = 0;
+        return this.COMMITTER.submit(() ->
+        {
+            try
+            {
+                dirtySegment.force(from, length);
+            }
+            catch (UncheckedIOException e)
+            {
+                this.commitFailure = e.getCause();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Waits for a hand off to be forced to disk.
+     * @param forced the Future of the hand off
+     * @throws UncheckedIOException if a record could not be forced to disk
+     */
+    private void awaitCommit(Future<?> forced)
+    {
+        try
+        {
+            forced.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            // Reported below along with errors from earlier hand offs.
+        }
+        if (this.commitFailure != null)
+        {
+            throw new UncheckedIOException(this.commitFailure);
+        }
+    }
+
+    /**
+     * Creates and maps the current segment file and writes its header.
+     * @throws IOException if the segment cannot be created
+     */
+    private void openSegment() throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(segmentPath(this.DIRECTORY, this.segmentNumber),
+                                                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE))
+        {
+            this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.SEGMENT_SIZE);
+        }
+        this.committedPosition = 0;
+        this.segment.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0);
+    }
+
+    /**
+     * @param hand five card codes
+     * @return returns the card codes packed into 30 bits, 6 bits each
+     */
+    private static long packHand(int[] hand)
+    {
+        long packed = 0;
+        for (int i = 0; i < hand.length; ++i)
+        {
+            packed |= (long) hand[i] << (i * CARD_BITS);
+        }
+        return packed;
+    }
+}
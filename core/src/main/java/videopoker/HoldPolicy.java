@@ -0,0 +1,40 @@
+package videopoker;
+
+/**
+ * A HoldPolicy decides which cards of a dealt hand to hold before the draw.
+ * Policies are shared between threads, so they must not keep any per-hand state.
+ */
+@FunctionalInterface
+public interface HoldPolicy
+{
+    // Holds every dealt card (the "Keep" command).
+    HoldPolicy KEEP_ALL = hand -> (1 << hand.length) - 1;
+    // Discards every dealt card (the "New Hand" command).
+    HoldPolicy DISCARD_ALL = hand -> 0;
+
+    /**
+     * Chooses which cards of a dealt hand to hold.
+     * @param hand the dealt hand of card codes (0 - 51)
+     * @return the held cards, bit i is set if the card at index i of the hand is held
+     */
+    int chooseHold(int[] hand);
+
+    /**
+     * @param payOuts the pay out for each Score (indexed by Score ordinal)
+     * @return returns a policy which always makes the hold with the highest expected value, using HoldSolver
+     */
+    static HoldPolicy optimal(int[] payOuts)
+    {
+        int[] payOutsCopy = payOuts.clone();
+        return hand -> HoldSolver.bestHold(hand, payOutsCopy);
+    }
+
+    /**
+     * @param table a strategy table built with StrategyTable.build()
+     * @return returns a policy which always makes the hold with the highest expected value, using a StrategyTable
+     */
+    static HoldPolicy optimal(StrategyTable table)
+    {
+        return table::bestHold;
+    }
+}
@@ -0,0 +1,385 @@
+package videopoker;
+
+import java.util.Arrays;
+
+/**
+ * This is a utility class which finds the best cards to hold for a dealt hand of five cards.
+ * For every one of the 32 ways to hold (or discard) the dealt cards, it counts exactly how many of the possible draws
+ * from the 47 remaining cards end in each Score, and turns those counts into an expected value for a pay out table.
+ * Instead of scoring every draw (over 2.5 million hands per decision), the counts are found by inclusion-exclusion:
+ * the number of hands containing a set of cards is looked up (up to three cards) or enumerated (four or five cards),
+ * and the hands which contain discarded cards are then subtracted out.
+ */
+public class HoldSolver
+{
+    public static final int HAND_SIZE = 5;
+    public static final int NUM_OF_HOLDS = 1 << HAND_SIZE;
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+    // Number of possible draws when holding 0, 1, 2, 3, 4 or 5 cards: C(47, 5 - held)
+    private static final long[] NUM_OF_DRAWS = {1533939, 178365, 16215, 1081, 47, 1};
+
+    // Score counts over all 2,598,960 hands, and over the hands containing one, two or three given cards.
+    // Sets of cards are indexed by their position in ascending order (see setIndex()).
+    // Each entry holds NUM_OF_SCORES counts.
+    private static final long[] ALL_HANDS = new long[NUM_OF_SCORES];
+    private static final int[] HANDS_WITH_CARD = new int[Card.NUM_OF_CODES * NUM_OF_SCORES];
+    private static final int[] HANDS_WITH_TWO_CARDS = new int[1326 * NUM_OF_SCORES];
+    private static final int[] HANDS_WITH_THREE_CARDS = new int[22100 * NUM_OF_SCORES];
+
+    static
+    {
+        int[] hand = new int[HAND_SIZE];
+        for (int c0 = 0; c0 < Card.NUM_OF_CODES; ++c0)
+        {
+            for (int c1 = c0 + 1; c1 < Card.NUM_OF_CODES; ++c1)
+            {
+                for (int c2 = c1 + 1; c2 < Card.NUM_OF_CODES; ++c2)
+                {
+                    for (int c3 = c2 + 1; c3 < Card.NUM_OF_CODES; ++c3)
+                    {
+                        for (int c4 = c3 + 1; c4 < Card.NUM_OF_CODES; ++c4)
+                        {
+                            hand[0] = c0;
+                            hand[1] = c1;
+                            hand[2] = c2;
+                            hand[3] = c3;
+                            hand[4] = c4;
+                            countHand(hand, PokerHandUtility.scoreHand(hand).ordinal());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds the result of one way of holding the dealt cards.
+     */
+    public static class Hold
+    {
+        private final int holdMask;
+        private final double expectedValue;
+        private final long[] outcomes;
+        private final long numOfDraws;
+
+        /**
+         * Constructs a Hold result.
+         * @param holdMask the held cards, bit i is set if the card at index i of the hand is held
+         * @param expectedValue the expected pay out of this hold for a bet of one token
+         * @param outcomes how many of the possible draws end in each Score (indexed by Score ordinal)
+         * @param numOfDraws the total amount of possible draws
+         */
+        public Hold(int holdMask, double expectedValue, long[] outcomes, long numOfDraws)
+        {
+            this.holdMask = holdMask;
+            this.expectedValue = expectedValue;
+            this.outcomes = outcomes;
+            this.numOfDraws = numOfDraws;
+        }
+
+        /**
+         * @return returns the held cards, bit i is set if the card at index i of the hand is held
+         */
+        public int getHoldMask()
+        {
+            return this.holdMask;
+        }
+
+        /**
+         * @return returns the expected pay out of this hold for a bet of one token
+         */
+        public double getExpectedValue()
+        {
+            return this.expectedValue;
+        }
+
+        /**
+         * @param score the Score to look up
+         * @return returns how many of the possible draws end in the given Score
+         */
+        public long getOutcomes(PokerHandUtility.Score score)
+        {
+            return this.outcomes[score.ordinal()];
+        }
+
+        /**
+         * @param score the Score to look up
+         * @return returns the chance of the draw ending in the given Score
+         */
+        public double getProbability(PokerHandUtility.Score score)
+        {
+            return (double) this.outcomes[score.ordinal()] / this.numOfDraws;
+        }
+
+        /**
+         * @return returns the total amount of possible draws for this hold
+         */
+        public long getNumOfDraws()
+        {
+            return this.numOfDraws;
+        }
+    }
+
+    /**
+     * Finds the expected value of all 32 ways of holding the cards of a dealt hand.
+     * @param hand the dealt hand of five different card codes (0 - 51), in any order
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @return all 32 holds, ordered from the highest expected value to the lowest
+     */
+    public static Hold[] solve(int[] hand, int[] payOuts)
+    {
+        long[] counts = new long[NUM_OF_HOLDS * NUM_OF_SCORES];
+        countOutcomes(hand, counts);
+
+        Hold[] holds = new Hold[NUM_OF_HOLDS];
+        for (int holdMask = 0; holdMask < NUM_OF_HOLDS; ++holdMask)
+        {
+            long[] outcomes = Arrays.copyOfRange(counts, holdMask * NUM_OF_SCORES, (holdMask + 1) * NUM_OF_SCORES);
+            long numOfDraws = NUM_OF_DRAWS[Integer.bitCount(holdMask)];
+            holds[holdMask] = new Hold(holdMask, (double) totalPayOut(outcomes, 0, payOuts) / numOfDraws,
+                                       outcomes, numOfDraws);
+        }
+        Arrays.sort(holds, (hold1, hold2) -> Double.compare(hold2.expectedValue, hold1.expectedValue));
+        return holds;
+    }
+
+    /**
+     * Finds the hold with the highest expected value.
+     * @param hand the dealt hand of five different card codes (0 - 51), in any order
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @return the best hold, bit i is set if the card at index i of the hand should be held
+     */
+    public static int bestHold(int[] hand, int[] payOuts)
+    {
+        long[] counts = new long[NUM_OF_HOLDS * NUM_OF_SCORES];
+        countOutcomes(hand, counts);
+        return bestHold(counts, payOuts);
+    }
+
+    /**
+     * Finds the hold with the highest expected value from the counts filled in by countOutcomes().
+     * @param counts the Score counts of every hold
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @return the best hold, bit i is set if the card at index i of the hand should be held
+     */
+    static int bestHold(long[] counts, int[] payOuts)
+    {
+        int bestHoldMask = 0;
+        double bestValue = -1;
+        for (int holdMask = 0; holdMask < NUM_OF_HOLDS; ++holdMask)
+        {
+            double value = (double) totalPayOut(counts, holdMask * NUM_OF_SCORES, payOuts)
+                           / NUM_OF_DRAWS[Integer.bitCount(holdMask)];
+            if (value > bestValue)
+            {
+                bestValue = value;
+                bestHoldMask = holdMask;
+            }
+        }
+        return bestHoldMask;
+    }
+
+    /**
+     * Counts how many of the possible draws end in each Score, for every one of the 32 holds.
+     * After this call, counts[holdMask * NUM_OF_SCORES + score] holds the count for that hold and Score.
+     * @param hand the dealt hand of five different card codes (0 - 51), in any order
+     * @param counts the array to fill, of size NUM_OF_HOLDS * NUM_OF_SCORES
+     */
+    static void countOutcomes(int[] hand, long[] counts)
+    {
+        checkHand(hand);
+        int[] scratch = new int[HAND_SIZE];
+        Arrays.fill(counts, 0);
+
+        // First, count the Scores of all hands which contain every card of a subset of the dealt hand.
+        for (int subset = 0; subset < NUM_OF_HOLDS; ++subset)
+        {
+            int offset = subset * NUM_OF_SCORES;
+            int size = 0;
+            for (int i = 0; i < HAND_SIZE; ++i)
+            {
+                if ((subset & (1 << i)) != 0)
+                {
+                    scratch[size++] = hand[i];
+                }
+            }
+            switch (size)
+            {
+                case 0 -> System.arraycopy(ALL_HANDS, 0, counts, offset, NUM_OF_SCORES);
+                case 1 -> copyCounts(HANDS_WITH_CARD, scratch[0] * NUM_OF_SCORES, counts, offset);
+                case 2 -> copyCounts(HANDS_WITH_TWO_CARDS, setIndex(scratch[0], scratch[1]), counts, offset);
+                case 3 -> copyCounts(HANDS_WITH_THREE_CARDS, setIndex(scratch[0], scratch[1], scratch[2]),
+                                     counts, offset);
+                case 4 -> countCompletions(scratch, counts, offset);
+                default -> counts[offset + PokerHandUtility.scoreHand(scratch).ordinal()] = 1;
+            }
+        }
+
+        // Then remove the hands which contain any discarded card. Afterwards, each subset only counts the hands...
+        // ...which contain exactly the held cards of the dealt hand, which are the possible draws of that hold.
+        for (int bit = 1; bit < NUM_OF_HOLDS; bit <<= 1)
+        {
+            for (int subset = 0; subset < NUM_OF_HOLDS; ++subset)
+            {
+                if ((subset & bit) == 0)
+                {
+                    int offset = subset * NUM_OF_SCORES;
+                    int supersetOffset = (subset | bit) * NUM_OF_SCORES;
+                    for (int score = 0; score < NUM_OF_SCORES; ++score)
+                    {
+                        counts[offset + score] -= counts[supersetOffset + score];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper function for countOutcomes(). Scores every hand that can be made by adding one card to four cards.
+     * @param scratch the four cards (the fifth element is not used)
+     * @param counts the array to add the Score counts to
+     * @param offset the index of the first count in the counts array
+     */
+    private static void countCompletions(int[] scratch, long[] counts, int offset)
+    {
+        long partialHand = 0;
+        for (int i = 0; i < HAND_SIZE - 1; ++i)
+        {
+            partialHand |= Card.mask(scratch[i]);
+        }
+        for (long rest = Card.FULL_DECK_MASK & ~partialHand; rest != 0; rest &= rest - 1)
+        {
+            ++counts[offset + PokerHandUtility.scoreHand(partialHand | Long.lowestOneBit(rest)).ordinal()];
+        }
+    }
+
+    /**
+     * Helper function for countOutcomes(). Copies a table entry's Score counts into the counts array.
+     * @param table the lookup table to copy from
+     * @param tableOffset the index of the entry's first count in the lookup table
+     * @param counts the array to copy the Score counts to
+     * @param offset the index of the first count in the counts array
+     */
+    private static void copyCounts(int[] table, int tableOffset, long[] counts, int offset)
+    {
+        for (int score = 0; score < NUM_OF_SCORES; ++score)
+        {
+            counts[offset + score] = table[tableOffset + score];
+        }
+    }
+
+    /**
+     * Helper function for building the lookup tables. Adds a hand's Score to every table entry it belongs to.
+     * @param hand the hand of card codes, in ascending order
+     * @param score the ordinal of the hand's Score
+     */
+    private static void countHand(int[] hand, int score)
+    {
+        ++ALL_HANDS[score];
+        for (int i = 0; i < HAND_SIZE; ++i)
+        {
+            ++HANDS_WITH_CARD[hand[i] * NUM_OF_SCORES + score];
+            for (int j = i + 1; j < HAND_SIZE; ++j)
+            {
+                ++HANDS_WITH_TWO_CARDS[setIndex(hand[i], hand[j]) + score];
+                for (int k = j + 1; k < HAND_SIZE; ++k)
+                {
+                    ++HANDS_WITH_THREE_CARDS[setIndex(hand[i], hand[j], hand[k]) + score];
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds where the Score counts of a pair of cards are stored in HANDS_WITH_TWO_CARDS.
+     * Pairs are numbered in ascending order: {0, 1} = 0, {0, 2} = 1, {1, 2} = 2, {0, 3} = 3 and so on.
+     * @param code1 the first card code
+     * @param code2 the second card code
+     * @return the index of the pair's first count
+     */
+    private static int setIndex(int code1, int code2)
+    {
+        int low = Math.min(code1, code2);
+        int high = Math.max(code1, code2);
+        return (high * (high - 1) / 2 + low) * NUM_OF_SCORES;
+    }
+
+    /**
+     * Finds where the Score counts of three cards are stored in HANDS_WITH_THREE_CARDS.
+     * The three cards are numbered in ascending order, the same way as pairs are in setIndex(int, int).
+     * @param code1 the first card code
+     * @param code2 the second card code
+     * @param code3 the third card code
+     * @return the index of the three cards' first count
+     */
+    private static int setIndex(int code1, int code2, int code3)
+    {
+        int low = Math.min(code1, Math.min(code2, code3));
+        int high = Math.max(code1, Math.max(code2, code3));
+        int middle = code1 + code2 + code3 - low - high;
+        return (high * (high - 1) * (high - 2) / 6 + middle * (middle - 1) / 2 + low) * NUM_OF_SCORES;
+    }
+
+    /**
+     * Adds up the pay outs of a set of Score counts.
+     * @param counts the array holding the Score counts
+     * @param offset the index of the first count in the counts array
+     * @param payOuts the pay out for each Score (indexed by Score ordinal)
+     * @return the total pay out
+     */
+    static long totalPayOut(long[] counts, int offset, int[] payOuts)
+    {
+        long total = 0;
+        for (int score = 0; score < NUM_OF_SCORES; ++score)
+        {
+            total += counts[offset + score] * payOuts[score];
+        }
+        return total;
+    }
+
+    /**
+     * @param holdMask the held cards
+     * @return returns the amount of possible draws when holding the given cards
+     */
+    static long numOfDraws(int holdMask)
+    {
+        return NUM_OF_DRAWS[Integer.bitCount(holdMask)];
+    }
+
+    /**
+     * Checks that a hand holds five different, valid card codes.
+     * @param hand the hand of card codes to check
+     */
+    private static void checkHand(int[] hand)
+    {
+        if (hand.length != HAND_SIZE)
+        {
+            throw new IllegalArgumentException("A hand must contain " + HAND_SIZE + " cards");
+        }
+        for (int i = 0; i < HAND_SIZE; ++i)
+        {
+            if (hand[i] < 0 || hand[i] >= Card.NUM_OF_CODES || contains(hand, i, hand[i]))
+            {
+                throw new IllegalArgumentException("A hand must contain " + HAND_SIZE + " different cards");
+            }
+        }
+    }
+
+    /**
+     * @param cards the array of card codes to search
+     * @param size the amount of card codes to search
+     * @param code the card code to find
+     * @return returns true if the first size elements of the cards array contain the card code, false otherwise
+     */
+    private static boolean contains(int[] cards, int size, int code)
+    {
+        for (int i = 0; i < size; ++i)
+        {
+            if (cards[i] == code)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package videopoker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds. Values are counted in buckets which grow by powers of two,...
+ * ...with 16 sub-buckets each, so every recorded value is kept to within about 6% of its real value.
+ * Recording is a single atomic increment, so any number of threads can record at the same time. The counts are...
+ * ...striped: each thread records into one of several copies, picked by its thread id, so threads on different...
+ * ...cores rarely fight over the same cache line. Reading a percentile adds the copies together.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_OF_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final int NUM_OF_STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    private final AtomicLongArray[] STRIPES = new AtomicLongArray[NUM_OF_STRIPES];
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        for (int i = 0; i < NUM_OF_STRIPES; ++i)
+        {
+            this.STRIPES[i] = new AtomicLongArray(NUM_OF_BUCKETS);
+        }
+    }
+
+    /**
+     * Records one latency.
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        int stripe = (int) Thread.currentThread().getId() & (NUM_OF_STRIPES - 1);
+        this.STRIPES[stripe].incrementAndGet(bucketOf(Math.max(nanos, 0)));
+    }
+
+    /**
+     * @return returns the amount of recorded latencies
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for (int i = 0; i < NUM_OF_BUCKETS; ++i)
+        {
+            count += getBucketCount(i);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the latency below which a given fraction of the recorded latencies fall.
+     * @param percentile the fraction of latencies, from 0 to 100 (for example 99 for the 99th percentile)
+     * @return the latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        long count = getCount();
+        if (count == 0)
+        {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < NUM_OF_BUCKETS; ++i)
+        {
+            seen += getBucketCount(i);
+            if (seen >= target)
+            {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(NUM_OF_BUCKETS - 1);
+    }
+
+    /**
+     * Forgets every recorded latency.
+     */
+    public void reset()
+    {
+        for (AtomicLongArray stripe : this.STRIPES)
+        {
+            for (int i = 0; i < NUM_OF_BUCKETS; ++i)
+            {
+                stripe.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * @param bucket a bucket of the histogram
+     * @return returns the amount of latencies counted in the bucket, over every stripe
+     */
+    private long getBucketCount(int bucket)
+    {
+        long count = 0;
+        for (AtomicLongArray stripe : this.STRIPES)
+        {
+            count += stripe.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * @param value a latency in nanoseconds (0 or more)
+     * @return returns the bucket which counts the latency
+     */
+    private static int bucketOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        // The top SUB_BUCKET_BITS + 1 bits of the value pick the bucket, the bits below them are dropped.
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @param bucket a bucket of the histogram
+     * @return returns the highest latency that is counted in the bucket
+     */
+    private static long highestValueOf(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,229 @@
+package videopoker;
+
+/**
+ * A MultiHandSession plays multi-hand video poker (Triple Play, Fifty Play, Hundred Play and the like): one hand is...
+ * ...dealt, the player picks which cards to hold, and the held cards are copied into every one of the hands. Each...
+ * ...hand then draws its replacements from its own copy of the rest of the deck, and bets one token.
+ * The hands are never built one by one. All the replacements are dealt in one batch from the deck's array (see...
+ * ...CardDeck.dealFromCopies()), each hand is kept as a card mask, and all the hands are scored in one batch.
+ * Each round goes through the same steps as a GameSession: deal() -> draw(holdMask) -> settle(). The deck is...
+ * ...reset and shuffled before every round, so with a seeded CardDeck round n is dealt from shuffle n.
+ */
+public class MultiHandSession
+{
+    public static final int CARDS_PER_HAND = GameSession.CARDS_PER_HAND;
+    // Instance variables
+    private final CardDeck DECK;
+    private final GameVariant VARIANT;
+    private final int NUM_OF_HANDS;
+    // The dealt hand, whose held cards every hand keeps.
+    private final int[] HAND = new int[CARDS_PER_HAND];
+    // The replacement cards of every hand, hand after hand.
+    private final int[] DRAWN;
+    private final long[] HAND_MASKS;
+    private final int[] CATEGORIES;
+    private final long[] HITS;
+    private GameSession.State state = GameSession.State.READY;
+    private int holdMask;
+    private long tokens;
+    private long roundsPlayed;
+    private long lastPayOut;
+
+    /**
+     * Constructs a MultiHandSession. The deck is shuffled before the first round.
+     * @param deck the deck of cards to deal from
+     * @param variant the game variant, which decides what each hand pays
+     * @param numOfHands the amount of hands played every round
+     * @param tokens the player's starting amount of tokens
+     * @throws IllegalArgumentException if numOfHands is not positive, or if the deck has a joker but the variant...
+     *                                  ...does not, or the other way around
+     */
+    public MultiHandSession(CardDeck deck, GameVariant variant, int numOfHands, long tokens)
+    {
+        if (numOfHands < 1)
+        {
+            throw new IllegalArgumentException("A session must play at least one hand, not " + numOfHands);
+        }
+        if (deck.hasJoker() != variant.hasJoker())
+        {
+            throw new IllegalArgumentException(variant + (variant.hasJoker() ? " needs" : " cannot use")
+                                               + " a deck with a joker");
+        }
+        this.DECK = deck;
+        this.VARIANT = variant;
+        this.NUM_OF_HANDS = numOfHands;
+        this.DRAWN = new int[numOfHands * CARDS_PER_HAND];
+        this.HAND_MASKS = new long[numOfHands];
+        this.CATEGORIES = new int[numOfHands];
+        this.HITS = new long[variant.getNumOfCategories()];
+        this.tokens = tokens;
+        this.DECK.shuffleDeck();
+    }
+
+    /**
+     * Deals the hand of cards which the player holds from.
+     */
+    public void deal()
+    {
+        checkState(GameSession.State.READY);
+        this.DECK.getNewHand(this.HAND);
+        this.state = GameSession.State.DEALT;
+    }
+
+    /**
+     * Copies the held cards into every hand and replaces the other cards of each hand with cards from its own copy...
+     * ...of the rest of the deck.
+     * @param holdMask the held cards, bit i is set if the card at index i of the dealt hand is held
+     */
+    public void draw(int holdMask)
+    {
+        checkState(GameSession.State.DEALT);
+        this.holdMask = holdMask & GameSession.HOLD_ALL;
+        long heldCards = 0;
+        for (int i = 0; i < CARDS_PER_HAND; ++i)
+        {
+            if ((this.holdMask & (1 << i)) != 0)
+            {
+                heldCards |= Card.mask(this.HAND[i]);
+            }
+        }
+        int count = CARDS_PER_HAND - Integer.bitCount(this.holdMask);
+        this.DECK.dealFromCopies(count, this.NUM_OF_HANDS, this.DRAWN);
+        int next = 0;
+        for (int hand = 0; hand < this.NUM_OF_HANDS; ++hand)
+        {
+            long mask = heldCards;
+            for (int i = 0; i < count; ++i)
+            {
+                mask |= Card.mask(this.DRAWN[next++]);
+            }
+            this.HAND_MASKS[hand] = mask;
+        }
+        this.state = GameSession.State.DRAWN;
+    }
+
+    /**
+     * Scores every hand, takes one token bet per hand and pays out the winnings, and records the hits.
+     * @return returns the total pay out of the round
+     */
+    public long settle()
+    {
+        checkState(GameSession.State.DRAWN);
+        this.lastPayOut = this.VARIANT.scoreHands(this.HAND_MASKS, this.CATEGORIES, this.NUM_OF_HANDS);
+        // One token must be paid for every hand prior to scoring the hands.
+        this.tokens += this.lastPayOut - this.NUM_OF_HANDS;
+        for (int hand = 0; hand < this.NUM_OF_HANDS; ++hand)
+        {
+            ++this.HITS[this.CATEGORIES[hand]];
+        }
+        ++this.roundsPlayed;
+        this.state = GameSession.State.READY;
+        this.DECK.resetDeck();
+        this.DECK.shuffleDeck();
+        return this.lastPayOut;
+    }
+
+    /**
+     * @return returns the amount of hands played every round
+     */
+    public int getNumOfHands()
+    {
+        return this.NUM_OF_HANDS;
+    }
+
+    /**
+     * @param index the index of the card in the dealt hand (0 - 4)
+     * @return returns the card code (0 - 52) of a card in the dealt hand
+     */
+    public int getCardCode(int index)
+    {
+        return this.HAND[index];
+    }
+
+    /**
+     * Copies the card codes of one of the drawn hands into an array. The held cards stay at their index of the...
+     * ...dealt hand and the replacements fill the other indexes in the order they were dealt.
+     * @param hand the index of the hand (0 - numOfHands - 1)
+     * @param cards the array to copy the card codes into
+     */
+    public void getHand(int hand, int[] cards)
+    {
+        checkState(GameSession.State.DRAWN);
+        int count = CARDS_PER_HAND - Integer.bitCount(this.holdMask);
+        int next = hand * count;
+        for (int i = 0; i < CARDS_PER_HAND; ++i)
+        {
+            cards[i] = (this.holdMask & (1 << i)) != 0 ? this.HAND[i] : this.DRAWN[next++];
+        }
+    }
+
+    /**
+     * @param hand the index of the hand (0 - numOfHands - 1)
+     * @return returns the variant's category of the hand in the last settled round
+     */
+    public int getCategory(int hand)
+    {
+        return this.CATEGORIES[hand];
+    }
+
+    /**
+     * @return returns the step of the round the session is waiting for
+     */
+    public GameSession.State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @return returns the player's amount of tokens
+     */
+    public long getTokens()
+    {
+        return this.tokens;
+    }
+
+    /**
+     * @return returns the amount of rounds settled
+     */
+    public long getRoundsPlayed()
+    {
+        return this.roundsPlayed;
+    }
+
+    /**
+     * @return returns the total pay out of the last settled round
+     */
+    public long getLastPayOut()
+    {
+        return this.lastPayOut;
+    }
+
+    /**
+     * @param category the index of one of the variant's categories
+     * @return returns how many hands ended in the category
+     */
+    public long getHits(int category)
+    {
+        return this.HITS[category];
+    }
+
+    /**
+     * @return returns the game variant the session plays
+     */
+    public GameVariant getVariant()
+    {
+        return this.VARIANT;
+    }
+
+    /**
+     * Checks that the session is at the expected step of the round.
+     * @param expected the expected step
+     */
+    private void checkState(GameSession.State expected)
+    {
+        if (this.state != expected)
+        {
+            throw new IllegalStateException("Expected the session to be " + expected + " but it is " + this.state);
+        }
+    }
+}
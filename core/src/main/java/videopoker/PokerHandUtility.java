@@ -0,0 +1,860 @@
+package videopoker;
+
+import java.util.ArrayList;
+
+/**
+ * This is a utility class for the VideoPokerMain class.
+ * This class's main purpose is to sort a hand a cards and/or score a hand of cards.
+ * Hands are scored through small lookup tables which are built once, so scoring never sorts or allocates, and...
+ * ...hands can be scored in any order. Sorting is only needed for printing a hand.
+ */
+public class PokerHandUtility
+{
+    public enum Score
+    {
+        NO_PAIRS("No Pairs"), ONE_PAIR("One Pair"), TWO_PAIRS("Two Pairs"), THREE_OF_A_KIND("Three of a Kind"),
+        STRAIGHT("Straight"), FLUSH("Flush"), FULL_HOUSE("Full House"), FOUR_OF_A_KIND("Four of a Kind"),
+        STRAIGHT_FLUSH("Straight Flush"), ROYAL_FLUSH("Royal Flush");
+
+        private final String NAME;
+
+        Score(String name)
+        {
+            this.NAME = name;
+        }
+
+        /**
+         * @return returns the name of the Score as players see it, such as "Three of a Kind"
+         */
+        public String getName()
+        {
+            return this.NAME;
+        }
+    }
+
+    // Lookup tables used by the hand evaluator. They are filled in once when the class is loaded.
+    private static final Score[] SCORES = Score.values();
+    private static final int ROYAL_RANKS = 0b1_1111_0000_0000;
+    private static final int WHEEL_RANKS = 0b1_0000_0000_1111;
+    private static final int SUIT_RANKS = (1 << Card.NUM_OF_RANKS) - 1;
+    // The highest rank (ordinal) of the best Straight found in a rank mask, or -1 if there is none.
+    private static final byte[] STRAIGHT_HIGH_RANKS = new byte[1 << 13];
+    private static final byte[] DISTINCT_RANK_SCORES = new byte[(1 << 13) * 2];
+    private static final byte[] MULTIPLE_RANK_SCORES = new byte[8 * 8 * 2];
+    // A hand pattern packs a hand's Score with the ranks that game variants pay differently (see handPattern()).
+    public static final int MAX_WILDS = 4;
+    public static final int NUM_OF_PATTERNS = (MAX_WILDS + 1) << 12;
+    // The pattern (without the wild count) of the best hand that can be made from natural cards of different ranks...
+    // ...and 1 - 4 wild cards, indexed by ((wilds - 1) << 14 | rankMask << 1 | flush).
+    private static final short[] WILD_DISTINCT_RANK_PATTERNS = new short[MAX_WILDS << 14];
+    // A hand rank orders every distinct value of a five card hand, from 1 (7-5-4-3-2) to 7462 (a Royal Flush).
+    // Each Score owns one range of ranks, which starts right after the range of the Score below it.
+    public static final int NUM_OF_HAND_RANKS = 7462;
+    private static final int ONE_PAIR_BASE = 1 + 1277;
+    private static final int TWO_PAIRS_BASE = ONE_PAIR_BASE + 13 * 220;
+    private static final int THREE_OF_A_KIND_BASE = TWO_PAIRS_BASE + 78 * 11;
+    private static final int STRAIGHT_BASE = THREE_OF_A_KIND_BASE + 13 * 66;
+    private static final int FLUSH_BASE = STRAIGHT_BASE + 10;
+    private static final int FULL_HOUSE_BASE = FLUSH_BASE + 1277;
+    private static final int FOUR_OF_A_KIND_BASE = FULL_HOUSE_BASE + 13 * 12;
+    private static final int STRAIGHT_FLUSH_BASE = FOUR_OF_A_KIND_BASE + 13 * 12;
+    // The index of each rank mask among the rank masks with as many ranks, counting upwards. Comparing two sets...
+    // ...of kickers by their highest ranks first is the same as comparing their masks, so this orders them.
+    private static final short[] SUBSET_INDEXES = new short[1 << 13];
+    // The hand rank of a hand with five distinct ranks, indexed by (rankMask << 1 | flush).
+    private static final short[] DISTINCT_RANK_VALUES = new short[(1 << 13) * 2];
+    private static final byte[] RANK_SCORES = new byte[NUM_OF_HAND_RANKS + 1];
+    // Batches are scored with the Vector API only if its incubator module was added to the JVM.
+    private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static final int BATCH_SIZE = 1024;
+
+    static
+    {
+        // Find the best Straight of every rank mask. The Ace may also precede the 2 ([A,2,3,4,5]).
+        for (int rankMask = 0; rankMask < (1 << 13); ++rankMask)
+        {
+            STRAIGHT_HIGH_RANKS[rankMask] = -1;
+            for (int highRank = Card.Ranks.ACE.ordinal(); highRank >= Card.Ranks.FIVE.ordinal(); --highRank)
+            {
+                int straightRanks = highRank == Card.Ranks.FIVE.ordinal() ? WHEEL_RANKS : 0b11111 << (highRank - 4);
+                if ((rankMask & straightRanks) == straightRanks)
+                {
+                    STRAIGHT_HIGH_RANKS[rankMask] = (byte) highRank;
+                    break;
+                }
+            }
+        }
+
+        // Hands with five distinct ranks are scored by their rank mask (13 bits) plus a flush flag.
+        for (int rankMask = 0; rankMask < (1 << 13); ++rankMask)
+        {
+            boolean straight = STRAIGHT_HIGH_RANKS[rankMask] >= 0;
+            DISTINCT_RANK_SCORES[rankMask << 1] = (byte) (straight ? Score.STRAIGHT : Score.NO_PAIRS).ordinal();
+            Score flushScore = Score.FLUSH;
+            if (straight)
+            {
+                flushScore = rankMask == ROYAL_RANKS ? Score.ROYAL_FLUSH : Score.STRAIGHT_FLUSH;
+            }
+            DISTINCT_RANK_SCORES[(rankMask << 1) | 1] = (byte) flushScore.ordinal();
+        }
+
+        // Number the rank masks of each size in order, and rank the hands with five distinct ranks. A Straight...
+        // ...ranks by its highest card, where the wheel's highest card is the 5.
+        int[] subsetCounts = new int[Card.NUM_OF_RANKS + 1];
+        int highCards = 0;
+        for (int rankMask = 0; rankMask < (1 << 13); ++rankMask)
+        {
+            SUBSET_INDEXES[rankMask] = (short) subsetCounts[Integer.bitCount(rankMask)]++;
+            if (Integer.bitCount(rankMask) != 5)
+            {
+                continue;
+            }
+            int straightHighRank = STRAIGHT_HIGH_RANKS[rankMask];
+            if (straightHighRank >= 0)
+            {
+                int straight = straightHighRank - Card.Ranks.FIVE.ordinal();
+                DISTINCT_RANK_VALUES[rankMask << 1] = (short) (STRAIGHT_BASE + straight);
+                DISTINCT_RANK_VALUES[(rankMask << 1) | 1] = (short) (STRAIGHT_FLUSH_BASE + straight);
+            }
+            else
+            {
+                DISTINCT_RANK_VALUES[rankMask << 1] = (short) (1 + highCards);
+                DISTINCT_RANK_VALUES[(rankMask << 1) | 1] = (short) (FLUSH_BASE + highCards);
+                ++highCards;
+            }
+        }
+        int[] scoreBases = {1, ONE_PAIR_BASE, TWO_PAIRS_BASE, THREE_OF_A_KIND_BASE, STRAIGHT_BASE, FLUSH_BASE,
+                FULL_HOUSE_BASE, FOUR_OF_A_KIND_BASE, STRAIGHT_FLUSH_BASE, NUM_OF_HAND_RANKS};
+        for (int score = 0; score < scoreBases.length; ++score)
+        {
+            int end = score + 1 < scoreBases.length ? scoreBases[score + 1] : NUM_OF_HAND_RANKS + 1;
+            for (int rank = scoreBases[score]; rank < end; ++rank)
+            {
+                RANK_SCORES[rank] = (byte) score;
+            }
+        }
+
+        // Hands with repeated ranks are scored by how many distinct ranks they have and how many of those repeat.
+        for (int distinct = 1; distinct <= 4; ++distinct)
+        {
+            for (int repeated = 0; repeated < 8; ++repeated)
+            {
+                Score score = switch (distinct)
+                {
+                    case 1 -> Score.FOUR_OF_A_KIND;
+                    case 2 -> repeated == 2 ? Score.FULL_HOUSE : Score.FOUR_OF_A_KIND;
+                    case 3 -> repeated == 2 ? Score.TWO_PAIRS : Score.THREE_OF_A_KIND;
+                    default -> Score.ONE_PAIR;
+                };
+                int index = (distinct << 3 | repeated) << 1;
+                MULTIPLE_RANK_SCORES[index] = (byte) score.ordinal();
+                // A flush always beats a pair, two pairs or three of a kind but never a full house or four of a kind.
+                if (score.ordinal() < Score.FLUSH.ordinal())
+                {
+                    score = Score.FLUSH;
+                }
+                MULTIPLE_RANK_SCORES[index | 1] = (byte) score.ordinal();
+            }
+        }
+
+        // Wild cards fill the gaps of a Straight, so find the best Straight that holds every natural rank instead.
+        for (int wilds = 1; wilds <= MAX_WILDS; ++wilds)
+        {
+            for (int rankMask = 0; rankMask < (1 << 13); ++rankMask)
+            {
+                if (Integer.bitCount(rankMask) != 5 - wilds)
+                {
+                    continue;
+                }
+                int straightHighRank = -1;
+                for (int highRank = Card.Ranks.ACE.ordinal(); highRank >= Card.Ranks.FIVE.ordinal(); --highRank)
+                {
+                    int straightRanks = highRank == Card.Ranks.FIVE.ordinal() ? WHEEL_RANKS : 0b11111 << (highRank - 4);
+                    if ((rankMask & ~straightRanks) == 0)
+                    {
+                        straightHighRank = highRank;
+                        break;
+                    }
+                }
+                for (int flush = 0; flush <= 1; ++flush)
+                {
+                    int index = (wilds - 1) << 14 | rankMask << 1 | flush;
+                    WILD_DISTINCT_RANK_PATTERNS[index] = (short) wildDistinctRankPattern(wilds, rankMask, flush == 1,
+                                                                                         straightHighRank);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores a hand of five cards. The hand of cards does not need to be sorted.
+     * The ranks are counted card by card rather than merged into a card mask, so a hand may hold the same card...
+     * ...more than once (as hands built by hand can) and each copy still counts towards its rank.
+     * @param hand the hand of cards to score
+     * @return a Score enum indicating what score the hand was awarded
+     */
+    public static Score scoreHand(ArrayList<Card> hand)
+    {
+        int rankMask = 0;
+        int repeatedMask = 0;
+        int suitMask = 0;
+        for (int i = 0; i < hand.size(); ++i)
+        {
+            Card card = hand.get(i);
+            int rankBit = 1 << card.getRank().ordinal();
+            repeatedMask |= rankMask & rankBit;
+            rankMask |= rankBit;
+            suitMask |= 1 << card.getSuit().ordinal();
+        }
+        return lookupScore(rankMask, repeatedMask, Integer.bitCount(suitMask) == 1 ? 1 : 0);
+    }
+
+    /**
+     * Scores a hand of five card codes. The hand does not need to be sorted, and may hold the same card more than...
+     * ...once, just like scoreHand(ArrayList).
+     * @param hand the hand of card codes (0 - 51) to score
+     * @return a Score enum indicating what score the hand was awarded
+     */
+    public static Score scoreHand(int[] hand)
+    {
+        int rankMask = 0;
+        int repeatedMask = 0;
+        int suitMask = 0;
+        for (int code : hand)
+        {
+            int rankBit = 1 << (code % Card.NUM_OF_RANKS);
+            repeatedMask |= rankMask & rankBit;
+            rankMask |= rankBit;
+            suitMask |= 1 << (code / Card.NUM_OF_RANKS);
+        }
+        return lookupScore(rankMask, repeatedMask, Integer.bitCount(suitMask) == 1 ? 1 : 0);
+    }
+
+    /**
+     * Scores a hand of five cards held as a card mask (bit n is set if the hand holds the card with card code n).
+     * The Score is the range its hand rank falls in, so scoring and ranking share the same evaluator (see handRank()).
+     * @param hand the card mask of the hand to score, holding five different cards
+     * @return a Score enum indicating what score the hand was awarded
+     */
+    public static Score scoreHand(long hand)
+    {
+        return SCORES[RANK_SCORES[handRank(hand)]];
+    }
+
+    /**
+     * Ranks a hand of five card codes against every other hand, just like handRank(long).
+     * @param hand the hand of card codes (0 - 51), which does not need to be sorted
+     * @return the rank of the hand, from 1 (the weakest) to NUM_OF_HAND_RANKS (a Royal Flush)
+     */
+    public static int handRank(int[] hand)
+    {
+        return handRank(handMask(hand));
+    }
+
+    /**
+     * Ranks a hand of five cards held as a card mask against every other hand. Two hands have the same rank only...
+     * ...if they tie, and the better of two hands has the higher rank, counting the kickers, so the 7462 distinct...
+     * ...values of a hand are numbered in order.
+     * The mask splits into one 13 bit rank mask per suit, and the ranks held in two, three and four suits give the...
+     * ...pairs, three and four of a kinds. A hand without them is looked up by its rank mask. Otherwise its rank is...
+     * ...the base of its Score plus the index of its groups and kickers, which are numbered by SUBSET_INDEXES after...
+     * ...taking out the ranks of the groups above them.
+     * @param hand the card mask of the hand, holding five different cards
+     * @return the rank of the hand, from 1 (the weakest) to NUM_OF_HAND_RANKS (a Royal Flush)
+     */
+    public static int handRank(long hand)
+    {
+        int hearts = (int) hand & SUIT_RANKS;
+        int diamonds = (int) (hand >>> Card.NUM_OF_RANKS) & SUIT_RANKS;
+        int spades = (int) (hand >>> (2 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int clubs = (int) (hand >>> (3 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int rankMask = hearts | diamonds | spades | clubs;
+        int repeatedMask = (hearts & (diamonds | spades | clubs)) | (diamonds & (spades | clubs)) | (spades & clubs);
+        if (repeatedMask == 0)
+        {
+            boolean oneSuit = rankMask == hearts || rankMask == diamonds || rankMask == spades || rankMask == clubs;
+            return DISTINCT_RANK_VALUES[rankMask << 1 | (oneSuit ? 1 : 0)];
+        }
+        int tripledMask = (hearts & diamonds & (spades | clubs)) | (spades & clubs & (hearts | diamonds));
+        int kickers = rankMask & ~repeatedMask;
+        if (tripledMask == 0)
+        {
+            int pairRank = highestRank(repeatedMask);
+            if (repeatedMask == 1 << pairRank)
+            {
+                return ONE_PAIR_BASE + pairRank * 220 + SUBSET_INDEXES[removeRank(kickers, pairRank)];
+            }
+            int lowPairRank = Integer.numberOfTrailingZeros(repeatedMask);
+            int kicker = removeRank(removeRank(kickers, pairRank), lowPairRank);
+            return TWO_PAIRS_BASE + SUBSET_INDEXES[repeatedMask] * 11 + SUBSET_INDEXES[kicker];
+        }
+        int groupRank = Integer.numberOfTrailingZeros(tripledMask);
+        int others = removeRank(rankMask & ~tripledMask, groupRank);
+        if ((hearts & diamonds & spades & clubs) != 0)
+        {
+            return FOUR_OF_A_KIND_BASE + groupRank * 12 + SUBSET_INDEXES[others];
+        }
+        if (repeatedMask != tripledMask)
+        {
+            return FULL_HOUSE_BASE + groupRank * 12 + SUBSET_INDEXES[others];
+        }
+        return THREE_OF_A_KIND_BASE + groupRank * 66 + SUBSET_INDEXES[others];
+    }
+
+    /**
+     * Ranks the best five card hand that can be made from five to seven card codes, just like bestHandRank(long).
+     * @param cards the card codes (0 - 51), which do not need to be sorted
+     * @return the rank of the best hand, from 1 (the weakest) to NUM_OF_HAND_RANKS (a Royal Flush)
+     */
+    public static int bestHandRank(int[] cards)
+    {
+        return bestHandRank(handMask(cards));
+    }
+
+    /**
+     * Ranks the best five card hand that can be made from five to seven cards held as a card mask, such as the...
+     * ...two hole cards and five community cards of hold'em. The rank is on the same scale as handRank(), so...
+     * ...rankScore() gives the best hand's Score, and the hands of several players can be compared directly.
+     * No subsets of five cards are tried. The ranks held in two, three and four suits are found from the suit...
+     * ...masks like in handRank(), and each group and kicker is picked as the highest ranks that are left:
+     * - a suit with five or more ranks makes a Straight Flush or a Flush from its own rank mask,
+     * - then the groups are checked from the best Score down, the best group of each size taken first,
+     * - and the kickers are the highest remaining ranks (see highestRanks()).
+     * @param cards the card mask of the cards, holding five to seven different cards
+     * @return the rank of the best hand, from 1 (the weakest) to NUM_OF_HAND_RANKS (a Royal Flush)
+     */
+    public static int bestHandRank(long cards)
+    {
+        int hearts = (int) cards & SUIT_RANKS;
+        int diamonds = (int) (cards >>> Card.NUM_OF_RANKS) & SUIT_RANKS;
+        int spades = (int) (cards >>> (2 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int clubs = (int) (cards >>> (3 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int rankMask = hearts | diamonds | spades | clubs;
+        int repeatedMask = (hearts & (diamonds | spades | clubs)) | (diamonds & (spades | clubs)) | (spades & clubs);
+        int tripledMask = (hearts & diamonds & (spades | clubs)) | (spades & clubs & (hearts | diamonds));
+        int quadrupledMask = hearts & diamonds & spades & clubs;
+
+        // Seven cards can hold at most one suit of five cards or more.
+        int flushRanks = Integer.bitCount(hearts) >= 5 ? hearts : Integer.bitCount(diamonds) >= 5 ? diamonds
+                : Integer.bitCount(spades) >= 5 ? spades : Integer.bitCount(clubs) >= 5 ? clubs : 0;
+        int flushRank = 0;
+        if (flushRanks != 0)
+        {
+            int straightHighRank = STRAIGHT_HIGH_RANKS[flushRanks];
+            if (straightHighRank >= 0)
+            {
+                return STRAIGHT_FLUSH_BASE + straightHighRank - Card.Ranks.FIVE.ordinal();
+            }
+            flushRank = DISTINCT_RANK_VALUES[highestRanks(flushRanks, 5) << 1 | 1];
+        }
+        if (quadrupledMask != 0)
+        {
+            int quadRank = highestRank(quadrupledMask);
+            int kicker = highestRanks(rankMask & ~(1 << quadRank), 1);
+            return FOUR_OF_A_KIND_BASE + quadRank * 12 + SUBSET_INDEXES[removeRank(kicker, quadRank)];
+        }
+        int tripRank = highestRank(tripledMask);
+        int pairs = repeatedMask & ~(1 << tripRank);
+        if (tripledMask != 0 && pairs != 0)
+        {
+            // The second three of a kind of a hand can be the pair of its Full House.
+            int pair = 1 << highestRank(pairs);
+            return FULL_HOUSE_BASE + tripRank * 12 + SUBSET_INDEXES[removeRank(pair, tripRank)];
+        }
+        if (flushRank != 0)
+        {
+            return flushRank;
+        }
+        int straightHighRank = STRAIGHT_HIGH_RANKS[rankMask];
+        if (straightHighRank >= 0)
+        {
+            return STRAIGHT_BASE + straightHighRank - Card.Ranks.FIVE.ordinal();
+        }
+        if (tripledMask != 0)
+        {
+            int kickers = highestRanks(rankMask & ~tripledMask, 2);
+            return THREE_OF_A_KIND_BASE + tripRank * 66 + SUBSET_INDEXES[removeRank(kickers, tripRank)];
+        }
+        if (repeatedMask == 0)
+        {
+            return DISTINCT_RANK_VALUES[highestRanks(rankMask, 5) << 1];
+        }
+        int pairRank = highestRank(repeatedMask);
+        int lowPairs = repeatedMask & ~(1 << pairRank);
+        if (lowPairs == 0)
+        {
+            int kickers = highestRanks(rankMask & ~repeatedMask, 3);
+            return ONE_PAIR_BASE + pairRank * 220 + SUBSET_INDEXES[removeRank(kickers, pairRank)];
+        }
+        // The third pair of a hand can hold its kicker.
+        int lowPairRank = highestRank(lowPairs);
+        int pairMask = 1 << pairRank | 1 << lowPairRank;
+        int kicker = highestRanks(rankMask & ~pairMask, 1);
+        return TWO_PAIRS_BASE + SUBSET_INDEXES[pairMask] * 11
+               + SUBSET_INDEXES[removeRank(removeRank(kicker, pairRank), lowPairRank)];
+    }
+
+    /**
+     * @param handRank the rank of a hand (see handRank())
+     * @return returns the Score of the hands with the rank
+     */
+    public static Score rankScore(int handRank)
+    {
+        return SCORES[RANK_SCORES[handRank]];
+    }
+
+    /**
+     * Scores a batch of hands held as card masks in one call. When the JVM is started with...
+     * ...--add-modules jdk.incubator.vector, the hands are scored several at a time with SIMD instructions (see...
+     * ...VectorHandScorer). Otherwise, or for the hands left over, they are scored one by one with scoreHand(long).
+     * @param hands the card masks of the hands to score, each holding five different cards without a joker
+     * @param scores the array to write each hand's Score ordinal to
+     * @param count the amount of hands to score
+     */
+    public static void scoreHands(long[] hands, byte[] scores, int count)
+    {
+        int start = VECTOR_API ? VectorHandScorer.scoreHands(hands, scores, count) : 0;
+        for (int i = start; i < count; ++i)
+        {
+            scores[i] = (byte) scoreHand(hands[i]).ordinal();
+        }
+    }
+
+    /**
+     * Scores a batch of hands held as card masks in one call, just like scoreHands(long[], byte[], int), but...
+     * ...writes Score enums instead of their ordinals.
+     * @param hands the card masks of the hands to score, each holding five different cards without a joker
+     * @param scores the array to write each hand's Score to
+     * @param count the amount of hands to score
+     */
+    public static void scoreHands(long[] hands, Score[] scores, int count)
+    {
+        byte[] ordinals = new byte[Math.min(count, BATCH_SIZE)];
+        long[] batch = new long[ordinals.length];
+        for (int start = 0; start < count; start += BATCH_SIZE)
+        {
+            int length = Math.min(count - start, BATCH_SIZE);
+            System.arraycopy(hands, start, batch, 0, length);
+            scoreHands(batch, ordinals, length);
+            for (int i = 0; i < length; ++i)
+            {
+                scores[start + i] = SCORES[ordinals[i]];
+            }
+        }
+    }
+
+    /**
+     * Finds the pattern of a hand of five card codes: its Score, the rank of its largest group of cards and its...
+     * ...kicker, packed as (Score ordinal << 8 | primary rank << 4 | kicker rank). The primary rank is the rank of...
+     * ...the four of a kind, three of a kind, or (highest) pair, or the highest card if no rank repeats. The kicker...
+     * ...is the highest rank outside of that group, or the second highest card if no rank repeats.
+     * Game variants score hands by looking their pattern up in a table (see GameVariant).
+     * @param hand the hand of card codes (0 - 51), which does not need to be sorted
+     * @return the pattern of the hand (0 - NUM_OF_PATTERNS - 1)
+     */
+    public static int handPattern(int[] hand)
+    {
+        int rankMask = 0;
+        int repeatedMask = 0;
+        int tripledMask = 0;
+        int suitMask = 0;
+        for (int code : hand)
+        {
+            int rankBit = 1 << (code % Card.NUM_OF_RANKS);
+            tripledMask |= repeatedMask & rankBit;
+            repeatedMask |= rankMask & rankBit;
+            rankMask |= rankBit;
+            suitMask |= 1 << (code / Card.NUM_OF_RANKS);
+        }
+        return pattern(rankMask, repeatedMask, tripledMask, Integer.bitCount(suitMask) == 1 ? 1 : 0);
+    }
+
+    /**
+     * Finds the pattern of a hand of five cards held as a card mask, just like handPattern(int[]).
+     * @param hand the card mask of the hand, holding five different cards
+     * @return the pattern of the hand (0 - NUM_OF_PATTERNS - 1)
+     */
+    public static int handPattern(long hand)
+    {
+        int hearts = (int) hand & SUIT_RANKS;
+        int diamonds = (int) (hand >>> Card.NUM_OF_RANKS) & SUIT_RANKS;
+        int spades = (int) (hand >>> (2 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int clubs = (int) (hand >>> (3 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int rankMask = hearts | diamonds | spades | clubs;
+        int repeatedMask = (hearts & (diamonds | spades | clubs)) | (diamonds & (spades | clubs)) | (spades & clubs);
+        int tripledMask = (hearts & diamonds & (spades | clubs)) | (spades & clubs & (hearts | diamonds));
+        boolean oneSuit = rankMask == hearts || rankMask == diamonds || rankMask == spades || rankMask == clubs;
+        return pattern(rankMask, repeatedMask, tripledMask, oneSuit && repeatedMask == 0 ? 1 : 0);
+    }
+
+    /**
+     * Finds the pattern of a hand of five card codes in a game with wild cards, just like handPattern(int[]).
+     * Every wild card counts as whichever card makes the best hand by the usual ranking, with a Five of a Kind...
+     * ...ranked above a Straight Flush and below a Royal Flush. The number of wild cards is packed into the pattern...
+     * ...above the Score (wilds << 12), so a variant can tell a natural Royal Flush from a wild one.
+     * A Five of a Kind has the Score FOUR_OF_A_KIND and its fifth card as kicker, so its kicker rank is its primary...
+     * ...rank (see isFiveOfAKind()). The pattern is looked up in precomputed tables, no substitutions are tried.
+     * @param hand the hand of card codes (0 - 52), which does not need to be sorted
+     * @param wildMask the card mask of the wild cards, for example the four 2s, or Card.mask(Card.JOKER)
+     * @return the pattern of the hand (0 - NUM_OF_PATTERNS - 1)
+     */
+    public static int handPattern(int[] hand, long wildMask)
+    {
+        int wilds = 0;
+        int rankMask = 0;
+        int repeatedMask = 0;
+        int tripledMask = 0;
+        int quadrupledMask = 0;
+        int suitMask = 0;
+        for (int code : hand)
+        {
+            if (((wildMask >>> code) & 1) != 0)
+            {
+                ++wilds;
+                continue;
+            }
+            int rankBit = 1 << (code % Card.NUM_OF_RANKS);
+            quadrupledMask |= tripledMask & rankBit;
+            tripledMask |= repeatedMask & rankBit;
+            repeatedMask |= rankMask & rankBit;
+            rankMask |= rankBit;
+            suitMask |= 1 << (code / Card.NUM_OF_RANKS);
+        }
+        int flush = Integer.bitCount(suitMask) == 1 ? 1 : 0;
+        return wildPattern(wilds, rankMask, repeatedMask, tripledMask, quadrupledMask, flush);
+    }
+
+    /**
+     * Finds the pattern of a hand of five cards held as a card mask in a game with wild cards, just like...
+     * ...handPattern(int[], long).
+     * @param hand the card mask of the hand, holding five different cards
+     * @param wildMask the card mask of the wild cards
+     * @return the pattern of the hand (0 - NUM_OF_PATTERNS - 1)
+     */
+    public static int handPattern(long hand, long wildMask)
+    {
+        int wilds = Long.bitCount(hand & wildMask);
+        long naturals = hand & ~wildMask & Card.FULL_DECK_MASK;
+        int hearts = (int) naturals & SUIT_RANKS;
+        int diamonds = (int) (naturals >>> Card.NUM_OF_RANKS) & SUIT_RANKS;
+        int spades = (int) (naturals >>> (2 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int clubs = (int) (naturals >>> (3 * Card.NUM_OF_RANKS)) & SUIT_RANKS;
+        int rankMask = hearts | diamonds | spades | clubs;
+        int repeatedMask = (hearts & (diamonds | spades | clubs)) | (diamonds & (spades | clubs)) | (spades & clubs);
+        int tripledMask = (hearts & diamonds & (spades | clubs)) | (spades & clubs & (hearts | diamonds));
+        int quadrupledMask = hearts & diamonds & spades & clubs;
+        boolean oneSuit = rankMask == hearts || rankMask == diamonds || rankMask == spades || rankMask == clubs;
+        int flush = oneSuit && repeatedMask == 0 ? 1 : 0;
+        return wildPattern(wilds, rankMask, repeatedMask, tripledMask, quadrupledMask, flush);
+    }
+
+    /**
+     * @param pattern a hand pattern
+     * @return returns the Score of the hand pattern
+     */
+    public static Score patternScore(int pattern)
+    {
+        return SCORES[(pattern >>> 8) & 0xF];
+    }
+
+    /**
+     * @param pattern a hand pattern
+     * @return returns the number of wild cards in the hand pattern
+     */
+    public static int patternWilds(int pattern)
+    {
+        return pattern >>> 12;
+    }
+
+    /**
+     * @param pattern a hand pattern
+     * @return returns true if the hand pattern is a Five of a Kind, which only wild cards can make
+     */
+    public static boolean isFiveOfAKind(int pattern)
+    {
+        return patternScore(pattern) == Score.FOUR_OF_A_KIND && patternPrimaryRank(pattern) == patternKickerRank(pattern);
+    }
+
+    /**
+     * @param pattern a hand pattern
+     * @return returns the primary rank (ordinal) of the hand pattern
+     */
+    public static int patternPrimaryRank(int pattern)
+    {
+        return (pattern >>> 4) & 0xF;
+    }
+
+    /**
+     * @param pattern a hand pattern
+     * @return returns the kicker rank (ordinal) of the hand pattern
+     */
+    public static int patternKickerRank(int pattern)
+    {
+        return pattern & 0xF;
+    }
+
+    /**
+     * Converts a hand of card codes into a card mask (bit n is set if the hand holds the card with card code n).
+     * @param hand the hand of card codes (0 - 51)
+     * @return the card mask of the hand
+     */
+    public static long handMask(int[] hand)
+    {
+        long mask = 0;
+        for (int code : hand)
+        {
+            mask |= Card.mask(code);
+        }
+        return mask;
+    }
+
+    /**
+     * Finds the highest rank of the best Straight that can be made from a set of ranks.
+     * @param rankMask a bit mask with one bit set for each rank
+     * @return the highest rank (ordinal) of the Straight, 3 for [A,2,3,4,5], or -1 if there is no Straight
+     */
+    public static int straightHighRank(int rankMask)
+    {
+        return STRAIGHT_HIGH_RANKS[rankMask];
+    }
+
+    /**
+     * Looks up the score of a hand of five cards.
+     * @param rankMask a bit mask with one bit set for each rank present in the hand
+     * @param repeatedMask a bit mask with one bit set for each rank which appears more than once in the hand
+     * @param flush 1 if every card of the hand has the same suit, 0 otherwise
+     * @return a Score enum indicating what score the hand was awarded
+     */
+    private static Score lookupScore(int rankMask, int repeatedMask, int flush)
+    {
+        if (repeatedMask == 0)
+        {
+            return SCORES[DISTINCT_RANK_SCORES[(rankMask << 1) | flush]];
+        }
+        int index = (Integer.bitCount(rankMask) << 3 | Integer.bitCount(repeatedMask)) << 1;
+        return SCORES[MULTIPLE_RANK_SCORES[index | flush]];
+    }
+
+    /**
+     * Packs the pattern of a hand of five cards.
+     * @param rankMask a bit mask with one bit set for each rank present in the hand
+     * @param repeatedMask a bit mask with one bit set for each rank which appears more than once in the hand
+     * @param tripledMask a bit mask with one bit set for each rank which appears more than twice in the hand
+     * @param flush 1 if every card of the hand has the same suit, 0 otherwise
+     * @return the pattern of the hand
+     */
+    private static int pattern(int rankMask, int repeatedMask, int tripledMask, int flush)
+    {
+        int score = lookupScore(rankMask, repeatedMask, flush).ordinal();
+        int group = tripledMask != 0 ? tripledMask : repeatedMask;
+        int primaryRank = highestRank(group != 0 ? group : rankMask);
+        int others = rankMask & ~(group != 0 ? group : 1 << primaryRank);
+        return score << 8 | primaryRank << 4 | highestRank(others);
+    }
+
+    /**
+     * Packs the pattern of a hand of five cards, some of which may be wild.
+     * Natural cards of different ranks are looked up in WILD_DISTINCT_RANK_PATTERNS. If a natural rank repeats...
+     * ...there can be no Straight or Flush, so the wild cards simply join the largest group of natural cards.
+     * @param wilds the number of wild cards
+     * @param rankMask a bit mask with one bit set for each rank present in the natural cards
+     * @param repeatedMask a bit mask with one bit set for each rank which appears more than once
+     * @param tripledMask a bit mask with one bit set for each rank which appears more than twice
+     * @param quadrupledMask a bit mask with one bit set for each rank which appears four times
+     * @param flush 1 if every natural card has the same suit, 0 otherwise
+     * @return the pattern of the hand
+     */
+    private static int wildPattern(int wilds, int rankMask, int repeatedMask, int tripledMask, int quadrupledMask,
+                                   int flush)
+    {
+        if (wilds == 0)
+        {
+            return pattern(rankMask, repeatedMask, tripledMask, repeatedMask == 0 ? flush : 0);
+        }
+        if (repeatedMask == 0)
+        {
+            return wilds << 12 | WILD_DISTINCT_RANK_PATTERNS[(wilds - 1) << 14 | rankMask << 1 | flush];
+        }
+        int group = quadrupledMask != 0 ? quadrupledMask : (tripledMask != 0 ? tripledMask : repeatedMask);
+        int groupSize = wilds + (quadrupledMask != 0 ? 4 : (tripledMask != 0 ? 3 : 2));
+        int primaryRank = highestRank(group);
+        int kickerRank = highestRank(rankMask & ~(1 << primaryRank));
+        Score score = Score.THREE_OF_A_KIND;
+        if (groupSize >= 5)
+        {
+            // Five of a Kind: the fifth card is its own kicker.
+            score = Score.FOUR_OF_A_KIND;
+            kickerRank = primaryRank;
+        }
+        else if (groupSize == 4)
+        {
+            score = Score.FOUR_OF_A_KIND;
+        }
+        else if (Integer.bitCount(repeatedMask) == 2)
+        {
+            // Two natural pairs and a wild card: the higher pair becomes three of a kind.
+            score = Score.FULL_HOUSE;
+        }
+        return wilds << 12 | score.ordinal() << 8 | primaryRank << 4 | kickerRank;
+    }
+
+    /**
+     * Finds the best hand that can be made from natural cards of different ranks and wild cards, for the lookup table.
+     * @param wilds the number of wild cards (1 - 4)
+     * @param rankMask a bit mask with one bit set for each natural rank
+     * @param flush true if every natural card has the same suit
+     * @param straightHighRank the highest rank of the best Straight holding every natural rank, or -1 if there is none
+     * @return the pattern of the best hand, without the wild count
+     */
+    private static int wildDistinctRankPattern(int wilds, int rankMask, boolean flush, int straightHighRank)
+    {
+        int highRank = highestRank(rankMask);
+        int secondRank = highestRank(rankMask & ~(1 << highRank));
+        Score score;
+        if (flush && straightHighRank == Card.Ranks.ACE.ordinal())
+        {
+            return Score.ROYAL_FLUSH.ordinal() << 8 | straightHighRank << 4 | (straightHighRank - 1);
+        }
+        if (wilds == 4)
+        {
+            // Five of a Kind ranks above a Straight Flush.
+            return Score.FOUR_OF_A_KIND.ordinal() << 8 | highRank << 4 | highRank;
+        }
+        if (flush && straightHighRank >= 0)
+        {
+            return Score.STRAIGHT_FLUSH.ordinal() << 8 | straightHighRank << 4 | (straightHighRank - 1);
+        }
+        if (wilds == 3)
+        {
+            score = Score.FOUR_OF_A_KIND;
+        }
+        else if (flush)
+        {
+            score = Score.FLUSH;
+        }
+        else if (straightHighRank >= 0)
+        {
+            return Score.STRAIGHT.ordinal() << 8 | straightHighRank << 4 | (straightHighRank - 1);
+        }
+        else
+        {
+            score = wilds == 2 ? Score.THREE_OF_A_KIND : Score.ONE_PAIR;
+        }
+        return score.ordinal() << 8 | highRank << 4 | secondRank;
+    }
+
+    /**
+     * @param rankMask a bit mask with one bit set for each rank
+     * @return returns the highest rank (ordinal) in the mask, or 0 if the mask is empty
+     */
+    private static int highestRank(int rankMask)
+    {
+        return 31 - Integer.numberOfLeadingZeros(rankMask | 1);
+    }
+
+    /**
+     * @param rankMask a bit mask with one bit set for each rank
+     * @param count the amount of ranks to keep
+     * @return returns the mask of the highest count ranks of the mask (all of them if it holds no more)
+     */
+    private static int highestRanks(int rankMask, int count)
+    {
+        // A hand of seven cards drops at most four ranks, the lowest first.
+        while (Integer.bitCount(rankMask) > count)
+        {
+            rankMask &= rankMask - 1;
+        }
+        return rankMask;
+    }
+
+    /**
+     * Takes a rank out of the ranks, so the ranks above it move down by one. A mask of the remaining ranks then...
+     * ...numbers them without a gap.
+     * @param rankMask a bit mask with one bit set for each rank, which does not hold the rank to take out
+     * @param rank the rank (ordinal) to take out
+     * @return returns the rank mask without the rank
+     */
+    private static int removeRank(int rankMask, int rank)
+    {
+        return (rankMask & ((1 << rank) - 1)) | ((rankMask >>> 1) & -(1 << rank));
+    }
+
+    /**
+     * Sorts an ArrayList of Cards by rank in ascending order. This is only needed for printing a hand in order,...
+     * ...since scoreHand() does not depend on the order of the cards.
+     * @param hand the hand to sort in ascending order.
+     */
+    public static void sortHand(ArrayList<Card> hand)
+    {
+        int[] codes = new int[hand.size()];
+        for (int i = 0; i < codes.length; ++i)
+        {
+            codes[i] = hand.get(i).getCode();
+        }
+        sortHand(codes);
+        for (int i = 0; i < codes.length; ++i)
+        {
+            hand.set(i, Card.valueOf(codes[i]));
+        }
+    }
+
+    /**
+     * Sorts a hand of card codes by rank in ascending order. Cards of the same rank are ordered by suit.
+     * Hands of five cards are sorted with a fixed sorting network of nine compare-and-swaps. Other hand sizes...
+     * ...are sorted with the insertion sort algorithm.
+     * @param hand the hand of card codes to sort in ascending order.
+     */
+    public static void sortHand(int[] hand)
+    {
+        if (hand.length == 5)
+        {
+            compareAndSwap(hand, 0, 1);
+            compareAndSwap(hand, 3, 4);
+            compareAndSwap(hand, 2, 4);
+            compareAndSwap(hand, 2, 3);
+            compareAndSwap(hand, 0, 3);
+            compareAndSwap(hand, 0, 2);
+            compareAndSwap(hand, 1, 4);
+            compareAndSwap(hand, 1, 3);
+            compareAndSwap(hand, 1, 2);
+            return;
+        }
+        for (int i = 1; i < hand.length; ++i)
+        {
+            int code = hand[i];
+            int j = i - 1;
+            while (j >= 0 && sortKey(hand[j]) > sortKey(code))
+            {
+                hand[j + 1] = hand[j];
+                --j;
+            }
+            hand[j + 1] = code;
+        }
+    }
+
+    /**
+     * Helper function for sortHand() method. Puts two elements of a hand in ascending order.
+     * @param hand the hand of card codes
+     * @param index1 the first element, which ends up with the lower card
+     * @param index2 the second element, which ends up with the higher card
+     */
+    private static void compareAndSwap(int[] hand, int index1, int index2)
+    {
+        int code1 = hand[index1];
+        int code2 = hand[index2];
+        boolean swap = sortKey(code1) > sortKey(code2);
+        hand[index1] = swap ? code2 : code1;
+        hand[index2] = swap ? code1 : code2;
+    }
+
+    /**
+     * @param code the card code (0 - 52)
+     * @return returns a number which orders cards by rank, and then by suit
+     */
+    private static int sortKey(int code)
+    {
+        // The joker (code 52) sorts after the Aces.
+        return (code % Card.NUM_OF_RANKS + code / Card.NUM_OF_CODES * Card.NUM_OF_RANKS) << 2
+               | (code / Card.NUM_OF_RANKS & 3);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,431 @@
+package videopoker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+
+/**
+ * This program hosts video poker games over TCP. Every connection plays its own GameSession on its own thread.
+ * On Java 21 and newer those are virtual threads, so tens of thousands of connections only cost a little memory...
+ * ...each (the session plus two small buffers). On older versions a cached thread pool is used instead, and...
+ * ...serve() prints a warning: every connection then holds a platform thread with a stack of its own, so the...
+ * ...server runs out of memory or threads long before it reaches that many connections.
+ *
+ * The protocol is line based. The client sends commands and the server answers each with one line:
+ *   DEAL                      -> HAND <five cards>
+ *   Keep | New Hand | 1 2 4   -> RESULT <five cards> <pay out> <tokens> <Score>
+ *   STATS                     -> STATS <rounds> <tokens> <pulls of each Score, from No Pairs to Royal Flush>
+ *   QUIT                      -> BYE <tokens>
+ * The Score is written as players see it, such as "Three of a Kind", so it comes last on the line.
+ * The hold commands are the same as VideoPokerMain's, and an unexpected hold command keeps the hand.
+ * Cards are written as a rank (2-9, T, J, Q, K, A) followed by a suit (H, D, S, C), for example "TH" or "AS".
+ * The joker of a Joker Poker game is written as "JK".
+ * Problems are answered with "ERROR <message>".
+ * Every session deals from a seeded CardDeck which is shuffled before every round, so any round can be...
+ * ...reproduced from its session's seed and round number alone (see GameSession.seekRound()).
+ * If a journal directory is given, every round is recorded in a HandJournal. The game variant defaults to Any Pair.
+ * A round which cannot be recorded has already been paid, so it is reported on the standard error, and the server...
+ * ...stops: no more hands are dealt, no more connections are accepted, and main() throws the journal's error.
+ *
+ * Every session records into one GameMetrics, which is registered as a JMX MBean. If a metrics port is given, the...
+ * ...metrics are also served in the Prometheus text format at http://[bind address]:[metrics port]/metrics.
+ *
+ * Usage: java videopoker.PokerServer [port] [bind address] [journal directory | -] [variant] [metrics port]
+ */
+public class PokerServer
+{
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final String SUIT_CHARS = "HDSC";
+    private static final int BUFFER_SIZE = 256;
+    private static final int IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final int REPORT_SECONDS = 10;
+    // Instance variables
+    private final GameVariant VARIANT;
+    private final int STARTING_TOKENS;
+    private final HandJournal JOURNAL;
+    private final LatencyHistogram ROUND_LATENCY = new LatencyHistogram();
+    private final GameMetrics METRICS = new GameMetrics();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong roundsPlayed = new AtomicLong();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+    private volatile ServerSocket serverSocket;
+    private volatile IOException journalFailure;
+
+    public static void main(String[] args) throws IOException, JMException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        InetAddress address = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        boolean journaled = args.length > 2 && !args[2].equals("-");
+        HandJournal journal = journaled ? new HandJournal(Path.of(args[2]), 1 << 20, 256) : null;
+        GameVariant variant = args.length > 3 ? GameVariant.valueOf(args[3]) : GameVariant.ANY_PAIR;
+        PokerServer server = new PokerServer(variant, 100, journal);
+        server.getMetrics().registerMBean("PokerServer");
+        if (args.length > 4)
+        {
+            server.getMetrics().startHttpServer(new InetSocketAddress(address, Integer.parseInt(args[4])));
+        }
+        if (variant == GameVariant.ANY_PAIR)
+        {
+            // Solving every hand takes a few seconds, so the theoretical return shows up once it is known.
+            Thread calculator = new Thread(() -> server.getMetrics().setTheoreticalReturnToPlayer(
+                    RtpCalculator.calculate(VideoPokerMain.getPayOuts()).getReturnToPlayer().doubleValue()),
+                    "poker-server-rtp");
+            calculator.setDaemon(true);
+            calculator.start();
+        }
+        try (ServerSocket serverSocket = new ServerSocket(); journal)
+        {
+            serverSocket.bind(new InetSocketAddress(address, port), 4096);
+            System.out.printf("Video Poker Server (%s) listening on %s\n", variant,
+                              serverSocket.getLocalSocketAddress());
+            server.startReporter();
+            server.serve(serverSocket);
+            if (server.getJournalFailure() != null)
+            {
+                throw server.getJournalFailure();
+            }
+        }
+    }
+
+    /**
+     * Constructs a PokerServer.
+     * @param variant the game variant every session plays
+     * @param startingTokens the amount of tokens each new session starts with
+     * @param journal the journal to record every round in, or null to not record rounds
+     */
+    public PokerServer(GameVariant variant, int startingTokens, HandJournal journal)
+    {
+        this.VARIANT = variant;
+        this.STARTING_TOKENS = startingTokens;
+        this.JOURNAL = journal;
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, handling each on its own thread.
+     * @param serverSocket the bound server socket
+     */
+    public void serve(ServerSocket serverSocket)
+    {
+        this.serverSocket = serverSocket;
+        ExecutorService connectionThreads = newConnectionExecutor();
+        try
+        {
+            while (!serverSocket.isClosed())
+            {
+                try
+                {
+                    Socket socket = serverSocket.accept();
+                    connectionThreads.execute(() -> handle(socket));
+                }
+                catch (IOException e)
+                {
+                    if (!serverSocket.isClosed())
+                    {
+                        System.err.println("Could not accept a connection: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        finally
+        {
+            connectionThreads.shutdown();
+        }
+    }
+
+    /**
+     * @return returns the live metrics every session records into
+     */
+    public GameMetrics getMetrics()
+    {
+        return this.METRICS;
+    }
+
+    /**
+     * @return returns the error which stopped the journal, or null if every round has been recorded
+     */
+    public IOException getJournalFailure()
+    {
+        return this.journalFailure;
+    }
+
+    /**
+     * @return returns the latencies of handling DEAL and hold commands
+     */
+    public LatencyHistogram getRoundLatency()
+    {
+        return this.ROUND_LATENCY;
+    }
+
+    /**
+     * Plays one connection's game until the client quits or disconnects.
+     * @param socket the connection's socket
+     */
+    private void handle(Socket socket)
+    {
+        this.openConnections.incrementAndGet();
+        try (socket)
+        {
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                         StandardCharsets.UTF_8), BUFFER_SIZE);
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8),
+                                            BUFFER_SIZE);
+            Connection connection = new Connection(this.nextSessionId.getAndIncrement(),
+                                                   ThreadLocalRandom.current().nextLong());
+            StringBuilder reply = new StringBuilder(64);
+            String line;
+            while ((line = in.readLine()) != null)
+            {
+                long startTime = System.nanoTime();
+                reply.setLength(0);
+                boolean quit = respond(connection, line.strip(), reply);
+                out.append(reply).append('\n');
+                out.flush();
+                // Only dealing and drawing count as round latency.
+                if (reply.charAt(0) == 'H' || reply.charAt(0) == 'R')
+                {
+                    this.ROUND_LATENCY.record(System.nanoTime() - startTime);
+                    // A client takes far longer per round than a flush, so the metrics can be kept exact.
+                    connection.session.flushMetrics();
+                }
+                if (quit)
+                {
+                    break;
+                }
+            }
+        }
+        catch (SocketTimeoutException e)
+        {
+            // The client was idle for too long. Closing the socket ends its session.
+        }
+        catch (IOException e)
+        {
+            // The client disconnected. Its session ends with the connection.
+        }
+        finally
+        {
+            this.openConnections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Holds the state of one connection: its game session, and what the journal needs to know about it.
+     */
+    private class Connection
+    {
+        private final long sessionId;
+        private final long seed;
+        private final GameSession session;
+        private final int[] dealtHand = new int[GameSession.CARDS_PER_HAND];
+        private final int[] finalHand = new int[GameSession.CARDS_PER_HAND];
+
+        Connection(long sessionId, long seed)
+        {
+            this.sessionId = sessionId;
+            this.seed = seed;
+            CardDeck deck = new CardDeck(seed, VARIANT.hasJoker());
+            deck.setLazyShuffle(true);
+            this.session = new GameSession(deck, VARIANT, STARTING_TOKENS, true);
+            this.session.setMetrics(METRICS);
+        }
+    }
+
+    /**
+     * Carries out one command of the protocol.
+     * @param connection the connection which sent the command
+     * @param command the command sent by the client
+     * @param reply the builder to write the reply line to (without the line break)
+     * @return true if the client quit, false otherwise
+     */
+    private boolean respond(Connection connection, String command, StringBuilder reply)
+    {
+        GameSession session = connection.session;
+        if (command.equalsIgnoreCase("QUIT"))
+        {
+            reply.append("BYE ").append(session.getTokens());
+            return true;
+        }
+        if (command.equalsIgnoreCase("STATS"))
+        {
+            reply.append("STATS ").append(session.getRoundsPlayed()).append(' ').append(session.getTokens());
+            for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+            {
+                reply.append(' ').append(session.getPulls(score));
+            }
+            return false;
+        }
+        if (command.equalsIgnoreCase("DEAL"))
+        {
+            if (this.journalFailure != null)
+            {
+                reply.append("ERROR The hand journal has failed, so no more rounds can be played");
+                return false;
+            }
+            if (session.getState() != GameSession.State.READY)
+            {
+                reply.append("ERROR The hand has already been dealt");
+                return false;
+            }
+            session.deal();
+            session.sortHand();
+            reply.append("HAND");
+            appendHand(session, reply);
+            return false;
+        }
+        if (session.getState() != GameSession.State.DEALT)
+        {
+            reply.append("ERROR Unknown command, or no hand has been dealt");
+            return false;
+        }
+        int holdMask = GameSession.parseHoldMask(command);
+        if (holdMask < 0)
+        {
+            holdMask = GameSession.HOLD_ALL;
+        }
+        session.getHand(connection.dealtHand);
+        long round = session.getRoundsPlayed();
+        session.draw(holdMask);
+        session.sortHand();
+        PokerHandUtility.Score score = session.settle();
+        this.roundsPlayed.incrementAndGet();
+        if (this.JOURNAL != null)
+        {
+            session.getHand(connection.finalHand);
+            try
+            {
+                this.JOURNAL.append(connection.sessionId, connection.seed, round, connection.dealtHand, holdMask,
+                                    connection.finalHand, score, session.getLastPayOut(), session.getTokens());
+            }
+            catch (IOException e)
+            {
+                failJournal(connection, round, e);
+            }
+        }
+        reply.append("RESULT");
+        appendHand(session, reply);
+        reply.append(' ').append(session.getLastPayOut()).append(' ').append(session.getTokens())
+             .append(' ').append(score.getName());
+        return false;
+    }
+
+    /**
+     * Stops the server after a round could not be recorded in the journal. The round has already been settled and...
+     * ...paid, so it is reported here to be audited by hand. No more hands are dealt, and closing the server...
+     * ...socket ends serve().
+     * @param connection the connection which played the round
+     * @param round the round number within the connection's session
+     * @param e the error which stopped the journal
+     */
+    private void failJournal(Connection connection, long round, IOException e)
+    {
+        System.err.printf("Could not record round %d of session %d (seed %d) in the journal: %s\n", round,
+                          connection.sessionId, connection.seed, e);
+        if (this.journalFailure == null)
+        {
+            this.journalFailure = e;
+        }
+        try
+        {
+            if (this.serverSocket != null)
+            {
+                this.serverSocket.close();
+            }
+        }
+        catch (IOException closeError)
+        {
+            e.addSuppressed(closeError);
+        }
+    }
+
+    /**
+     * Writes the cards of a session's hand, each after a space.
+     * @param session the game session
+     * @param reply the builder to write the cards to
+     */
+    private static void appendHand(GameSession session, StringBuilder reply)
+    {
+        for (int i = 0; i < GameSession.CARDS_PER_HAND; ++i)
+        {
+            int code = session.getCardCode(i);
+            if (code == Card.JOKER)
+            {
+                reply.append(" JK");
+                continue;
+            }
+            reply.append(' ').append(RANK_CHARS.charAt(code % Card.NUM_OF_RANKS))
+                 .append(SUIT_CHARS.charAt(code / Card.NUM_OF_RANKS));
+        }
+    }
+
+    /**
+     * Starts a daemon thread which prints the open connections, rounds per second and round latencies...
+     * ...every REPORT_SECONDS seconds.
+     */
+    public void startReporter()
+    {
+        Thread reporter = new Thread(() ->
+        {
+            long lastRounds = 0;
+            while (true)
+            {
+                try
+                {
+                    Thread.sleep(REPORT_SECONDS * 1000L);
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                long rounds = this.roundsPlayed.get();
+                System.out.printf("connections: %d  rounds/s: %.0f  p50: %.1f us  p99: %.1f us\n",
+                                  this.openConnections.get(), (double) (rounds - lastRounds) / REPORT_SECONDS,
+                                  this.ROUND_LATENCY.getPercentile(50) / 1e3,
+                                  this.ROUND_LATENCY.getPercentile(99) / 1e3);
+                this.ROUND_LATENCY.reset();
+                lastRounds = rounds;
+            }
+        }, "poker-server-reporter");
+        reporter.setDaemon(true);
+        reporter.start();
+    }
+
+    /**
+     * Creates the executor which runs each connection on its own thread.
+     * Virtual threads are used when the Java version has them (Java 21 and newer). Otherwise a warning is printed,...
+     * ...since a platform thread per connection limits how many connections the server can hold.
+     * @return the connection executor
+     */
+    private static ExecutorService newConnectionExecutor()
+    {
+        try
+        {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            System.err.printf("WARNING: Java %s has no virtual threads, so every connection gets a platform thread of "
+                              + "its own and only a few thousand connections fit. Run the server on Java 21 or "
+                              + "newer to hold tens of thousands.\n", Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package videopoker;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * This program calculates the exact return to player of a pay out table when every hand is played optimally.
+ * Instead of all 2,598,960 deals, it solves one hand of each of the 134,459 classes of hands which only differ by
+ * their suits (see HandCanonicalizer) with HoldSolver, weighted by the amount of deals in the class. The classes are
+ * solved in parallel on all processor cores.
+ * All totals are kept as exact integers, so the return, its variance and the chance of each Score are exact fractions.
+ *
+ * Usage: java videopoker.RtpCalculator [pay outs ...] where each pay out table is 10 comma separated numbers (No Pairs first),...
+ * ...or @file to read one pay out table per line. Without arguments, VideoPokerMain's pay out table is used.
+ */
+public class RtpCalculator
+{
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+    private static final int NUM_OF_DEALS = 2598960;
+    private static final MathContext PRECISION = MathContext.DECIMAL128;
+
+    public static void main(String[] args) throws IOException
+    {
+        ArrayList<int[]> payOutTables = new ArrayList<>();
+        for (String arg : args)
+        {
+            if (arg.startsWith("@"))
+            {
+                for (String line : Files.readAllLines(Path.of(arg.substring(1))))
+                {
+                    if (!line.isBlank())
+                    {
+                        payOutTables.add(parsePayOuts(line));
+                    }
+                }
+            }
+            else
+            {
+                payOutTables.add(parsePayOuts(arg));
+            }
+        }
+        if (payOutTables.isEmpty())
+        {
+            payOutTables.add(VideoPokerMain.getPayOuts());
+        }
+
+        for (int[] payOuts : payOutTables)
+        {
+            long startTime = System.nanoTime();
+            Report report = calculate(payOuts);
+            System.out.printf("\nPay outs: %s (%.2f seconds)\n", String.join(",", IntStream.of(payOuts)
+                              .mapToObj(Integer::toString).toArray(String[]::new)), (System.nanoTime() - startTime) / 1e9);
+            System.out.printf("Return to player: %s%%\n", report.getReturnToPlayer().movePointRight(2)
+                              .round(new MathContext(12)).toPlainString());
+            System.out.printf("Variance: %s\n", report.getVariance().round(new MathContext(12)).toPlainString());
+            for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+            {
+                System.out.printf("%s: %s\n", score.getName(), report.getProbability(score).round(new MathContext(12)));
+            }
+        }
+    }
+
+    /**
+     * Holds the exact results of a pay out table. Every chance is a fraction over the same denominator.
+     */
+    public static class Report
+    {
+        private final int[] PAY_OUTS;
+        private final BigInteger[] SCORE_NUMERATORS;
+        private final BigInteger DENOMINATOR;
+
+        /**
+         * Constructs a Report.
+         * @param payOuts the pay out for each Score (indexed by Score ordinal)
+         * @param scoreNumerators the numerator of each Score's chance (indexed by Score ordinal)
+         * @param denominator the denominator shared by all chances
+         */
+        Report(int[] payOuts, BigInteger[] scoreNumerators, BigInteger denominator)
+        {
+            this.PAY_OUTS = payOuts.clone();
+            this.SCORE_NUMERATORS = scoreNumerators;
+            this.DENOMINATOR = denominator;
+        }
+
+        /**
+         * @param score the Score to look up
+         * @return returns the exact chance of a hand ending in the Score, as {numerator, denominator} in lowest terms
+         */
+        public BigInteger[] getExactProbability(PokerHandUtility.Score score)
+        {
+            return reduce(this.SCORE_NUMERATORS[score.ordinal()], this.DENOMINATOR);
+        }
+
+        /**
+         * @param score the Score to look up
+         * @return returns the chance of a hand ending in the Score
+         */
+        public BigDecimal getProbability(PokerHandUtility.Score score)
+        {
+            return new BigDecimal(this.SCORE_NUMERATORS[score.ordinal()]).divide(new BigDecimal(this.DENOMINATOR),
+                                                                                 PRECISION);
+        }
+
+        /**
+         * @return returns the exact return to player (tokens paid out per token bet), as {numerator, denominator}...
+         * ...in lowest terms
+         */
+        public BigInteger[] getExactReturnToPlayer()
+        {
+            return reduce(weightedSum(1), this.DENOMINATOR);
+        }
+
+        /**
+         * @return returns the return to player (tokens paid out per token bet)
+         */
+        public BigDecimal getReturnToPlayer()
+        {
+            return new BigDecimal(weightedSum(1)).divide(new BigDecimal(this.DENOMINATOR), PRECISION);
+        }
+
+        /**
+         * @return returns the variance of a single hand's pay out
+         */
+        public BigDecimal getVariance()
+        {
+            BigDecimal denominator = new BigDecimal(this.DENOMINATOR);
+            BigDecimal mean = new BigDecimal(weightedSum(1)).divide(denominator, PRECISION);
+            BigDecimal meanOfSquares = new BigDecimal(weightedSum(2)).divide(denominator, PRECISION);
+            return meanOfSquares.subtract(mean.multiply(mean, PRECISION), PRECISION);
+        }
+
+        /**
+         * @param power 1 for the pay outs, 2 for the squared pay outs
+         * @return returns the sum of each Score's numerator times its pay out raised to a power
+         */
+        private BigInteger weightedSum(int power)
+        {
+            BigInteger sum = BigInteger.ZERO;
+            for (int score = 0; score < NUM_OF_SCORES; ++score)
+            {
+                sum = sum.add(this.SCORE_NUMERATORS[score].multiply(BigInteger.valueOf(this.PAY_OUTS[score]).pow(power)));
+            }
+            return sum;
+        }
+
+        /**
+         * @param numerator the fraction's numerator
+         * @param denominator the fraction's denominator
+         * @return returns the fraction in lowest terms, as {numerator, denominator}
+         */
+        private static BigInteger[] reduce(BigInteger numerator, BigInteger denominator)
+        {
+            BigInteger gcd = numerator.gcd(denominator);
+            if (gcd.signum() == 0)
+            {
+                return new BigInteger[] {BigInteger.ZERO, BigInteger.ONE};
+            }
+            return new BigInteger[] {numerator.divide(gcd), denominator.divide(gcd)};
+        }
+    }
+
+    /**
+     * Calculates the exact results of a pay out table, playing every hand with the hold of the highest expected value.
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @return the exact results
+     */
+    public static Report calculate(int[] payOuts)
+    {
+        int[] payOutsCopy = payOuts.clone();
+        Totals totals = IntStream.range(0, HandCanonicalizer.NUM_OF_CLASSES).parallel()
+                                 .collect(Totals::new, (sum, classIndex) -> sum.add(classIndex, payOutsCopy),
+                                          Totals::merge);
+
+        // Each class's Score counts are over C(47, 5 - held) draws. Bring them all over one common denominator.
+        BigInteger commonDraws = BigInteger.ONE;
+        for (int held = 0; held <= HoldSolver.HAND_SIZE; ++held)
+        {
+            BigInteger draws = BigInteger.valueOf(HoldSolver.numOfDraws((1 << held) - 1));
+            commonDraws = commonDraws.divide(commonDraws.gcd(draws)).multiply(draws);
+        }
+        BigInteger[] scoreNumerators = new BigInteger[NUM_OF_SCORES];
+        for (int score = 0; score < NUM_OF_SCORES; ++score)
+        {
+            scoreNumerators[score] = BigInteger.ZERO;
+            for (int held = 0; held <= HoldSolver.HAND_SIZE; ++held)
+            {
+                BigInteger scale = commonDraws.divide(BigInteger.valueOf(HoldSolver.numOfDraws((1 << held) - 1)));
+                scoreNumerators[score] = scoreNumerators[score]
+                        .add(BigInteger.valueOf(totals.scoreCounts[held * NUM_OF_SCORES + score]).multiply(scale));
+            }
+        }
+        return new Report(payOutsCopy, scoreNumerators, commonDraws.multiply(BigInteger.valueOf(NUM_OF_DEALS)));
+    }
+
+    /**
+     * Adds up the Score counts of the best holds, weighted by class size and grouped by the amount of cards held.
+     */
+    private static class Totals
+    {
+        private final long[] scoreCounts = new long[(HoldSolver.HAND_SIZE + 1) * NUM_OF_SCORES];
+        private final long[] counts = new long[HoldSolver.NUM_OF_HOLDS * NUM_OF_SCORES];
+        private final int[] hand = new int[HoldSolver.HAND_SIZE];
+
+        /**
+         * Solves one class of hands and adds its best hold's Score counts.
+         * @param classIndex the index of the class
+         * @param payOuts the pay out for each Score (indexed by Score ordinal)
+         */
+        void add(int classIndex, int[] payOuts)
+        {
+            HandCanonicalizer.keyToHand(HandCanonicalizer.classKey(classIndex), this.hand);
+            HoldSolver.countOutcomes(this.hand, this.counts);
+            int holdMask = HoldSolver.bestHold(this.counts, payOuts);
+            int offset = Integer.bitCount(holdMask) * NUM_OF_SCORES;
+            long weight = HandCanonicalizer.classSize(classIndex);
+            for (int score = 0; score < NUM_OF_SCORES; ++score)
+            {
+                this.scoreCounts[offset + score] += weight * this.counts[holdMask * NUM_OF_SCORES + score];
+            }
+        }
+
+        /**
+         * Adds another Totals' Score counts to this one.
+         * @param other the Totals to add
+         */
+        void merge(Totals other)
+        {
+            for (int i = 0; i < this.scoreCounts.length; ++i)
+            {
+                this.scoreCounts[i] += other.scoreCounts[i];
+            }
+        }
+    }
+
+    /**
+     * @param line 10 comma separated pay outs
+     * @return returns the parsed pay out table
+     */
+    private static int[] parsePayOuts(String line)
+    {
+        String[] values = line.split(",");
+        if (values.length != NUM_OF_SCORES)
+        {
+            throw new IllegalArgumentException("A pay out table needs " + NUM_OF_SCORES + " values: " + line);
+        }
+        int[] payOuts = new int[NUM_OF_SCORES];
+        for (int i = 0; i < NUM_OF_SCORES; ++i)
+        {
+            payOuts[i] = Integer.parseInt(values[i].strip());
+        }
+        return payOuts;
+    }
+}
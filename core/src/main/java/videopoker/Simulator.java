@@ -0,0 +1,254 @@
+package videopoker;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This program plays video poker without any user input, as fast as possible, in order to measure the game's...
+ * ...return to player for a hold policy. The hands are split between all processor cores with fork/join. Each worker
+ * plays its share of hands with its own seeded CardDeck (split off the parent's deck, so a seed always gives the same
+ * result), and the per-worker pulls and token totals are added together at the end.
+ *
+ * Usage: java videopoker.Simulator [hands] [keep | new | solver | table file] [seed]
+ */
+public class Simulator
+{
+    private static final int CARDS_PER_HAND = 5;
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+    // Workers play at most this many hands before their share is split in two.
+    private static final long HANDS_PER_TASK = 1 << 16;
+
+    public static void main(String[] args) throws IOException
+    {
+        long numOfHands = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        String policyName = args.length > 1 ? args[1] : "keep";
+        int[] payOuts = VideoPokerMain.getPayOuts();
+        HoldPolicy policy;
+        int seedArg = 2;
+        switch (policyName.toLowerCase())
+        {
+            case "new" -> policy = HoldPolicy.DISCARD_ALL;
+            case "solver" -> policy = HoldPolicy.optimal(payOuts);
+            case "keep" -> policy = HoldPolicy.KEEP_ALL;
+            case "table" ->
+            {
+                if (args.length < 3)
+                {
+                    throw new IllegalArgumentException("The table policy needs a strategy table file");
+                }
+                policy = HoldPolicy.optimal(StrategyTable.open(Path.of(args[2])));
+                seedArg = 3;
+            }
+            default -> throw new IllegalArgumentException("Unknown policy: " + policyName
+                                                          + " (expected keep, new, solver or table file)");
+        }
+        long seed = args.length > seedArg ? Long.parseLong(args[seedArg]) : System.nanoTime();
+
+        System.out.printf("Simulating %,d hands on %d threads (policy: %s)\n", numOfHands,
+                          ForkJoinPool.commonPool().getParallelism(), policyName);
+        long startTime = System.nanoTime();
+        Result result = simulate(numOfHands, policy, payOuts, seed);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        printResult(result, seconds);
+    }
+
+    /**
+     * Holds the totals of a simulation. Results of different workers are added together with merge().
+     */
+    public static class Result
+    {
+        private final long[] PULLS = new long[NUM_OF_SCORES];
+        private long hands;
+        private long tokensIn;
+        private long tokensOut;
+        // The sum of each hand's squared pay out, used for the variance of the return to player.
+        private long sumOfSquares;
+
+        /**
+         * Records one played hand.
+         * @param score the hand's final Score
+         * @param payOut the tokens paid out for the hand
+         */
+        void record(PokerHandUtility.Score score, int payOut)
+        {
+            ++this.PULLS[score.ordinal()];
+            ++this.hands;
+            ++this.tokensIn;
+            this.tokensOut += payOut;
+            this.sumOfSquares += (long) payOut * payOut;
+        }
+
+        /**
+         * Adds another Result's totals to this Result.
+         * @param other the Result to add
+         * @return this Result
+         */
+        Result merge(Result other)
+        {
+            for (int i = 0; i < NUM_OF_SCORES; ++i)
+            {
+                this.PULLS[i] += other.PULLS[i];
+            }
+            this.hands += other.hands;
+            this.tokensIn += other.tokensIn;
+            this.tokensOut += other.tokensOut;
+            this.sumOfSquares += other.sumOfSquares;
+            return this;
+        }
+
+        /**
+         * @param score the Score to look up
+         * @return returns how many hands ended in the given Score
+         */
+        public long getPulls(PokerHandUtility.Score score)
+        {
+            return this.PULLS[score.ordinal()];
+        }
+
+        /**
+         * @return returns the amount of hands played
+         */
+        public long getHands()
+        {
+            return this.hands;
+        }
+
+        /**
+         * @return returns the amount of tokens bet
+         */
+        public long getTokensIn()
+        {
+            return this.tokensIn;
+        }
+
+        /**
+         * @return returns the amount of tokens paid out
+         */
+        public long getTokensOut()
+        {
+            return this.tokensOut;
+        }
+
+        /**
+         * @return returns the observed return to player (tokens paid out per token bet)
+         */
+        public double getReturnToPlayer()
+        {
+            return (double) this.tokensOut / this.tokensIn;
+        }
+
+        /**
+         * @return returns the standard error of the observed return to player
+         */
+        public double getStandardError()
+        {
+            double mean = getReturnToPlayer();
+            double variance = (double) this.sumOfSquares / this.hands - mean * mean;
+            return Math.sqrt(variance / this.hands);
+        }
+    }
+
+    /**
+     * Plays a number of hands in parallel on the common fork/join pool.
+     * @param numOfHands the amount of hands to play
+     * @param policy the policy which decides which cards to hold
+     * @param payOuts the pay out for each Score (indexed by Score ordinal)
+     * @param seed the seed of the deck all workers' decks are split from
+     * @return the totals of all played hands
+     */
+    public static Result simulate(long numOfHands, HoldPolicy policy, int[] payOuts, long seed)
+    {
+        CardDeck deck = new CardDeck(seed);
+        deck.setLazyShuffle(true);
+        return ForkJoinPool.commonPool().invoke(new SimulationTask(numOfHands, policy, payOuts, deck));
+    }
+
+    /**
+     * A fork/join task which plays a share of the hands, splitting it in two while it is too large.
+     */
+    private static class SimulationTask extends RecursiveTask<Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long numOfHands;
+        private final HoldPolicy policy;
+        private final int[] payOuts;
+        private final CardDeck deck;
+
+        SimulationTask(long numOfHands, HoldPolicy policy, int[] payOuts, CardDeck deck)
+        {
+            this.numOfHands = numOfHands;
+            this.policy = policy;
+            this.payOuts = payOuts;
+            this.deck = deck;
+        }
+
+        @Override
+        protected Result compute()
+        {
+            if (this.numOfHands > HANDS_PER_TASK)
+            {
+                long half = this.numOfHands / 2;
+                SimulationTask left = new SimulationTask(half, this.policy, this.payOuts, this.deck.split());
+                SimulationTask right = new SimulationTask(this.numOfHands - half, this.policy, this.payOuts,
+                                                          this.deck);
+                left.fork();
+                return right.compute().merge(left.join());
+            }
+            return playHands();
+        }
+
+        /**
+         * Plays this task's hands with a deck of its own.
+         * @return the totals of the played hands
+         */
+        private Result playHands()
+        {
+            Result result = new Result();
+            CardDeck deck = this.deck;
+            int[] hand = new int[CARDS_PER_HAND];
+            for (long i = 0; i < this.numOfHands; ++i)
+            {
+                // Every hand is dealt from a freshly shuffled deck.
+                deck.resetDeck();
+                deck.shuffleDeck();
+                deck.getNewHand(hand);
+                int holdMask = this.policy.chooseHold(hand);
+                for (int card = 0; card < CARDS_PER_HAND; ++card)
+                {
+                    if ((holdMask & (1 << card)) == 0)
+                    {
+                        hand[card] = deck.getTopCardCode();
+                    }
+                }
+                PokerHandUtility.Score score = PokerHandUtility.scoreHand(hand);
+                result.record(score, this.payOuts[score.ordinal()]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Prints the totals of a simulation.
+     * @param result the totals of the simulation
+     * @param seconds how long the simulation took
+     */
+    private static void printResult(Result result, double seconds)
+    {
+        System.out.printf("Played %,d hands in %.2f seconds (%,.0f hands/second)\n", result.getHands(), seconds,
+                          result.getHands() / seconds);
+        System.out.printf("Tokens in: %,d  Tokens out: %,d\n", result.getTokensIn(), result.getTokensOut());
+        double halfWidth = 1.96 * result.getStandardError();
+        System.out.printf("Return to player: %.5f%% (95%% confidence interval: %.5f%% - %.5f%%)\n",
+                          100 * result.getReturnToPlayer(), 100 * (result.getReturnToPlayer() - halfWidth),
+                          100 * (result.getReturnToPlayer() + halfWidth));
+        System.out.println("\nPulls\n================================");
+        for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+        {
+            System.out.printf("%s: %,d (%.6f%%)\n", score.getName(), result.getPulls(score),
+                              100.0 * result.getPulls(score) / result.getHands());
+        }
+    }
+}
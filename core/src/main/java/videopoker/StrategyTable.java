@@ -0,0 +1,225 @@
+package videopoker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed table of the best hold and its expected value for every class of hands (see HandCanonicalizer).
+ * The table is built once for a pay out table by HoldSolver and written to a binary file. Afterwards the file is...
+ * ...memory-mapped, so looking up a hand costs a hash of its canonical key and a read, and nothing is rebuilt.
+ *
+ * File format (big-endian): a header of MAGIC, VERSION, the amount of slots and the 10 pay outs, followed by an...
+ * ...open addressing hash table of 16 byte slots: the canonical key (long, 0 if empty), the expected value (float),...
+ * ...the best hold (byte, bit i set to hold the i-th lowest card of the canonical hand) and 3 bytes of padding.
+ *
+ * Usage: java videopoker.StrategyTable [file]
+ */
+public class StrategyTable
+{
+    private static final int MAGIC = 0x56505354;
+    private static final int VERSION = 1;
+    private static final int NUM_OF_SLOTS = 1 << 18;
+    private static final int SLOT_SIZE = 16;
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+    private static final int HEADER_SIZE = (3 + NUM_OF_SCORES) * Integer.BYTES;
+    // Instance variables
+    private final MappedByteBuffer TABLE;
+    private final int[] PAY_OUTS;
+
+    public static void main(String[] args) throws IOException
+    {
+        Path file = Path.of(args.length > 0 ? args[0] : "strategy.bin");
+        long startTime = System.nanoTime();
+        build(file, VideoPokerMain.getPayOuts());
+        System.out.printf("Wrote %s in %.1f seconds\n", file, (System.nanoTime() - startTime) / 1e9);
+    }
+
+    /**
+     * Constructs a StrategyTable from a memory-mapped table file.
+     * @param table the mapped table file
+     */
+    private StrategyTable(MappedByteBuffer table)
+    {
+        this.TABLE = table;
+        this.PAY_OUTS = new int[NUM_OF_SCORES];
+        for (int score = 0; score < NUM_OF_SCORES; ++score)
+        {
+            this.PAY_OUTS[score] = table.getInt((3 + score) * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Solves every class of hands for a pay out table and writes the results to a table file.
+     * @param file the file to write
+     * @param payOuts the pay out for each Score (indexed by Score ordinal) for a bet of one token
+     * @throws IOException if the file cannot be written
+     */
+    public static void build(Path file, int[] payOuts) throws IOException
+    {
+        ByteBuffer table = ByteBuffer.allocate(HEADER_SIZE + NUM_OF_SLOTS * SLOT_SIZE);
+        table.putInt(MAGIC).putInt(VERSION).putInt(NUM_OF_SLOTS);
+        for (int payOut : payOuts)
+        {
+            table.putInt(payOut);
+        }
+
+        long[] keys = new long[HandCanonicalizer.NUM_OF_CLASSES];
+        float[] values = new float[HandCanonicalizer.NUM_OF_CLASSES];
+        byte[] holds = new byte[HandCanonicalizer.NUM_OF_CLASSES];
+        IntStream.range(0, HandCanonicalizer.NUM_OF_CLASSES).parallel().forEach(classIndex ->
+        {
+            int[] hand = new int[HoldSolver.HAND_SIZE];
+            long[] counts = new long[HoldSolver.NUM_OF_HOLDS * NUM_OF_SCORES];
+            keys[classIndex] = HandCanonicalizer.classKey(classIndex);
+            HandCanonicalizer.keyToHand(keys[classIndex], hand);
+            HoldSolver.countOutcomes(hand, counts);
+            int holdMask = HoldSolver.bestHold(counts, payOuts);
+            holds[classIndex] = (byte) holdMask;
+            values[classIndex] = (float) HoldSolver.totalPayOut(counts, holdMask * NUM_OF_SCORES, payOuts)
+                                 / HoldSolver.numOfDraws(holdMask);
+        });
+
+        for (int classIndex = 0; classIndex < keys.length; ++classIndex)
+        {
+            int slot = firstSlot(keys[classIndex]);
+            while (table.getLong(slotOffset(slot)) != 0)
+            {
+                slot = (slot + 1) & (NUM_OF_SLOTS - 1);
+            }
+            table.putLong(slotOffset(slot), keys[classIndex]);
+            table.putFloat(slotOffset(slot) + Long.BYTES, values[classIndex]);
+            table.put(slotOffset(slot) + Long.BYTES + Float.BYTES, holds[classIndex]);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            table.rewind();
+            while (table.hasRemaining())
+            {
+                channel.write(table);
+            }
+        }
+    }
+
+    /**
+     * Opens a table file written by build() by memory-mapping it.
+     * @param file the table file
+     * @return the opened StrategyTable
+     * @throws IOException if the file cannot be read or is not a table file
+     */
+    public static StrategyTable open(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            table.order(ByteOrder.BIG_ENDIAN);
+            if (channel.size() != HEADER_SIZE + (long) NUM_OF_SLOTS * SLOT_SIZE || table.getInt(0) != MAGIC
+                || table.getInt(Integer.BYTES) != VERSION || table.getInt(2 * Integer.BYTES) != NUM_OF_SLOTS)
+            {
+                throw new IOException(file + " is not a strategy table file");
+            }
+            return new StrategyTable(table);
+        }
+    }
+
+    /**
+     * @return returns a copy of the pay out table this table was built for
+     */
+    public int[] getPayOuts()
+    {
+        return this.PAY_OUTS.clone();
+    }
+
+    /**
+     * Looks up the best hold of a hand of cards.
+     * @param hand the dealt hand of five different card codes (0 - 51), in any order
+     * @return the best hold, bit i is set if the card at index i of the hand should be held
+     */
+    public int bestHold(int[] hand)
+    {
+        int[] canonicalHand = new int[hand.length];
+        HandCanonicalizer.canonicalHand(hand, canonicalHand);
+        int canonicalHold = this.TABLE.get(findSlot(canonicalHand) + Long.BYTES + Float.BYTES);
+
+        // The table's hold refers to the canonical hand's cards in ascending order.
+        int holdMask = 0;
+        for (int i = 0; i < canonicalHand.length; ++i)
+        {
+            int position = 0;
+            for (int code : canonicalHand)
+            {
+                if (code < canonicalHand[i])
+                {
+                    ++position;
+                }
+            }
+            if ((canonicalHold & (1 << position)) != 0)
+            {
+                holdMask |= 1 << i;
+            }
+        }
+        return holdMask;
+    }
+
+    /**
+     * Looks up the expected pay out of a hand of cards when it is played with its best hold.
+     * @param hand the dealt hand of five different card codes (0 - 51), in any order
+     * @return the expected pay out for a bet of one token
+     */
+    public double expectedValue(int[] hand)
+    {
+        int[] canonicalHand = new int[hand.length];
+        HandCanonicalizer.canonicalHand(hand, canonicalHand);
+        return this.TABLE.getFloat(findSlot(canonicalHand) + Long.BYTES);
+    }
+
+    /**
+     * Finds the slot of a canonical hand in the mapped table.
+     * @param canonicalHand the canonical hand of card codes
+     * @return the byte offset of the hand's slot
+     */
+    private int findSlot(int[] canonicalHand)
+    {
+        long key = 0;
+        for (int code : canonicalHand)
+        {
+            key |= 1L << code;
+        }
+        int slot = firstSlot(key);
+        long slotKey;
+        while ((slotKey = this.TABLE.getLong(slotOffset(slot))) != key)
+        {
+            if (slotKey == 0)
+            {
+                throw new IllegalArgumentException("A hand must contain " + HoldSolver.HAND_SIZE + " different cards");
+            }
+            slot = (slot + 1) & (NUM_OF_SLOTS - 1);
+        }
+        return slotOffset(slot);
+    }
+
+    /**
+     * @param key the canonical key
+     * @return returns the slot where a search for the key starts
+     */
+    private static int firstSlot(long key)
+    {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - 18));
+    }
+
+    /**
+     * @param slot the slot number
+     * @return returns the byte offset of the slot in the table file
+     */
+    private static int slotOffset(int slot)
+    {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+}
@@ -0,0 +1,90 @@
+package videopoker;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores hands held as card masks with the Vector API, as many hands at a time as the CPU has 64 bit SIMD lanes.
+ * Every lane splits its mask into one 13 bit rank mask per suit, like PokerHandUtility.scoreHand(long) does, but...
+ * ...instead of looking the Score up in a table it is worked out with bitwise operations only:
+ * - the ranks held in at least two, three and four suits tell the pairs, three and four of a kinds apart,
+ * - a hand without pairs is a Flush if one suit holds every rank of the hand,
+ * - and a Straight if adding the lowest rank bit to the rank mask clears every bit (or it is the wheel).
+ * Each Score is then blended into the lanes whose hands have it, from the lowest Score to the highest.
+ * The jdk.incubator.vector module is only resolved when the JVM is started with...
+ * ...--add-modules jdk.incubator.vector, so only PokerHandUtility may touch this class, after checking that it is.
+ */
+final class VectorHandScorer
+{
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // The Scores of one vector of hands are stored as bytes, which fit in the smallest shape of vector.
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_64;
+    private static final VectorMask<Byte> STORE_MASK = BYTES.indexInRange(0, LONGS.length());
+    private static final long SUIT_RANKS = (1L << Card.NUM_OF_RANKS) - 1;
+    private static final long ROYAL_RANKS = 0b1_1111_0000_0000L;
+    private static final long WHEEL_RANKS = 0b1_0000_0000_1111L;
+
+    private VectorHandScorer()
+    {
+    }
+
+    /**
+     * Scores the hands that fill whole vectors. The caller scores the rest.
+     * @param hands the card masks of the hands, each holding five different cards without a joker
+     * @param scores the array to write each hand's Score ordinal to
+     * @param count the amount of hands to score
+     * @return returns the amount of hands scored, a multiple of the vector length
+     */
+    static int scoreHands(long[] hands, byte[] scores, int count)
+    {
+        int end = LONGS.loopBound(count);
+        for (int i = 0; i < end; i += LONGS.length())
+        {
+            LongVector hand = LongVector.fromArray(LONGS, hands, i);
+            LongVector hearts = hand.and(SUIT_RANKS);
+            LongVector diamonds = hand.lanewise(VectorOperators.LSHR, Card.NUM_OF_RANKS).and(SUIT_RANKS);
+            LongVector spades = hand.lanewise(VectorOperators.LSHR, 2 * Card.NUM_OF_RANKS).and(SUIT_RANKS);
+            LongVector clubs = hand.lanewise(VectorOperators.LSHR, 3 * Card.NUM_OF_RANKS).and(SUIT_RANKS);
+            LongVector redRanks = hearts.or(diamonds);
+            LongVector blackRanks = spades.or(clubs);
+            LongVector redPairs = hearts.and(diamonds);
+            LongVector blackPairs = spades.and(clubs);
+            LongVector rankMask = redRanks.or(blackRanks);
+            // The ranks held in at least two, three and all four suits.
+            LongVector twoSuits = redPairs.or(blackPairs).or(redRanks.and(blackRanks));
+            LongVector threeSuits = redPairs.and(blackRanks).or(blackPairs.and(redRanks));
+            LongVector fourSuits = redPairs.and(blackPairs);
+            LongVector pairs = twoSuits.lanewise(VectorOperators.AND_NOT, threeSuits);
+
+            VectorMask<Long> distinctRanks = twoSuits.compare(VectorOperators.EQ, 0);
+            VectorMask<Long> hasPair = pairs.compare(VectorOperators.NE, 0);
+            VectorMask<Long> hasTwoPairs = pairs.and(pairs.sub(1)).compare(VectorOperators.NE, 0);
+            VectorMask<Long> hasThree = threeSuits.compare(VectorOperators.NE, 0);
+            VectorMask<Long> hasFour = fourSuits.compare(VectorOperators.NE, 0);
+            VectorMask<Long> flush = rankMask.compare(VectorOperators.EQ, hearts)
+                    .or(rankMask.compare(VectorOperators.EQ, diamonds))
+                    .or(rankMask.compare(VectorOperators.EQ, spades))
+                    .or(rankMask.compare(VectorOperators.EQ, clubs)).and(distinctRanks);
+            VectorMask<Long> straight = rankMask.add(rankMask.and(rankMask.neg())).and(rankMask)
+                    .compare(VectorOperators.EQ, 0)
+                    .or(rankMask.compare(VectorOperators.EQ, WHEEL_RANKS)).and(distinctRanks);
+
+            LongVector score = LongVector.zero(LONGS)
+                    .blend(PokerHandUtility.Score.ONE_PAIR.ordinal(), hasPair)
+                    .blend(PokerHandUtility.Score.TWO_PAIRS.ordinal(), hasTwoPairs)
+                    .blend(PokerHandUtility.Score.THREE_OF_A_KIND.ordinal(), hasThree)
+                    .blend(PokerHandUtility.Score.STRAIGHT.ordinal(), straight)
+                    .blend(PokerHandUtility.Score.FLUSH.ordinal(), flush)
+                    .blend(PokerHandUtility.Score.FULL_HOUSE.ordinal(), hasThree.and(hasPair))
+                    .blend(PokerHandUtility.Score.FOUR_OF_A_KIND.ordinal(), hasFour)
+                    .blend(PokerHandUtility.Score.STRAIGHT_FLUSH.ordinal(), straight.and(flush))
+                    .blend(PokerHandUtility.Score.ROYAL_FLUSH.ordinal(),
+                           flush.and(rankMask.compare(VectorOperators.EQ, ROYAL_RANKS)));
+            ((ByteVector) score.castShape(BYTES, 0)).intoArray(scores, i, STORE_MASK);
+        }
+        return end;
+    }
+}
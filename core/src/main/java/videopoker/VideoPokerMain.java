@@ -0,0 +1,332 @@
+package videopoker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * This program uses and depends on the Card and CardDeck class.
+ * This program simulates rounds of poker until the user decides to stop playing.
+ * The rules of the game are kept by a GameSession. This class only reads the user's input and prints the game.
+ * Run it with a number of hands (for example 3, 10 or 100) to play multi-hand video poker with a MultiHandSession.
+ * Run it with "batch" to play a scripted game, for regression and load runs:
+ * Usage: java videopoker.VideoPokerMain batch [file | -] [verbose | quiet] [seed]
+ * Every line of the file (or of the standard input for "-") holds the response to one round's prompt, and the game...
+ * ...ends when the input does. Each round is written as one line, or not at all when quiet, and the pulls and the...
+ * ...payout are printed at the end.
+ */
+public class VideoPokerMain
+{
+    private static final int[] PAY_OUTS = {0, 1, 2, 3, 4, 5, 6, 25, 50, 250};
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final String SUIT_CHARS = "HDSC";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String USAGE = "Usage: java videopoker.VideoPokerMain [hands]\n"
+                                        + "       java videopoker.VideoPokerMain batch [file | -] [verbose | quiet] "
+                                        + "[seed]";
+    // All input is read through one reader, so no buffered input is lost between prompts when stdin is piped.
+    private static final BufferedReader IN = new BufferedReader(new InputStreamReader(System.in), BUFFER_SIZE);
+
+    public static void main(String[] args) throws IOException
+    {
+        boolean batch = args.length > 0 && args[0].equalsIgnoreCase("batch");
+        // The number of hands must fit in an int, and a batch seed in a long.
+        if ((args.length > 0 && !batch && !args[0].matches("\\d{1,9}"))
+            || (batch && args.length > 3 && !args[3].matches("-?\\d{1,18}")))
+        {
+            System.out.println(USAGE);
+            return;
+        }
+        if (batch)
+        {
+            playBatch(args);
+            return;
+        }
+        if (args.length > 0 && Integer.parseInt(args[0]) > 1)
+        {
+            playMultiHand(Integer.parseInt(args[0]));
+            return;
+        }
+        System.out.print("Video Poker Program\n===============================");
+        // Create a new game session with a new CardDeck object. The session shuffles the card deck...
+        // ...and remembers all the pulls of the Poker game. Give user 100 tokens to start with.
+        GameSession session = new GameSession(new CardDeck(), PAY_OUTS, 100);
+        String userResponse;
+        do
+        {
+            System.out.println();
+            // Get a hand of cards from the deck.
+            session.deal();
+            // Sort the hand of cards using the PokerHandUtility utility class, so it prints in order.
+            session.sortHand();
+            // Print the hand of cards to the screen.
+            printHand(session);
+            System.out.println();
+            // Prompt user if they want to reject any cards.
+            rejectCards(session);
+            System.out.println();
+            // Pay the token, score the hand, award the payout and update the pulls.
+            PokerHandUtility.Score playerScore = session.settle();
+            // Print the score of the hand.
+            printScoreEnum(playerScore);
+            // Print user's token count.
+            System.out.printf("You have %d tokens\n", session.getTokens());
+            // Prompt user to play again.
+            System.out.print("Shuffle Again? (Y/N): ");
+            userResponse = getLine();
+        } while (userResponse.equalsIgnoreCase("Y"));
+        // Print out the all the pulls of this poker game.
+        System.out.println("\nPulls this game\n================================");
+        printScoreResults(session.getPulls());
+        // Print the user's final payout after the game has ended.
+        printPayout(session.getTokens());
+    }
+
+    /**
+     * Plays multi-hand video poker until the user decides to stop playing. Every hand costs one token.
+     * @param numOfHands the amount of hands played every round
+     */
+    private static void playMultiHand(int numOfHands)
+    {
+        System.out.printf("Video Poker Program (%d hands)\n===============================", numOfHands);
+        GameVariant variant = GameVariant.ANY_PAIR;
+        // Give the user 100 tokens for every hand to start with.
+        MultiHandSession session = new MultiHandSession(new CardDeck(), variant, numOfHands, 100L * numOfHands);
+        String userResponse;
+        do
+        {
+            System.out.println();
+            session.deal();
+            System.out.print("Your hand contains:\n");
+            for (int i = 0; i < MultiHandSession.CARDS_PER_HAND; ++i)
+            {
+                Card card = Card.valueOf(session.getCardCode(i));
+                System.out.print((i + 1) + ": " + card.getRank() + " of " + card.getSuit() + "\n");
+            }
+            System.out.print("""
+
+                    Enter "Keep" to keep your hand of cards.
+                    Enter "New Hand" to receive new hands of cards.
+                    Enter a sequence of numbers which represent which cards to replace in every hand.
+                    """);
+            System.out.print("Input: ");
+            int holdMask = GameSession.parseHoldMask(getLine());
+            session.draw(holdMask < 0 ? GameSession.HOLD_ALL : holdMask);
+            session.settle();
+            // Count the hands of each category, and print the ones that paid out.
+            int[] counts = new int[variant.getNumOfCategories()];
+            for (int hand = 0; hand < numOfHands; ++hand)
+            {
+                ++counts[session.getCategory(hand)];
+            }
+            System.out.println();
+            for (int category = counts.length - 1; category >= 0; --category)
+            {
+                if (counts[category] > 0 && variant.getPayOut(category) > 0)
+                {
+                    System.out.printf("%d x %s\n", counts[category], variant.getCategoryName(category));
+                }
+            }
+            System.out.printf("You won %d tokens\n", session.getLastPayOut());
+            System.out.printf("You have %d tokens\n", session.getTokens());
+            System.out.print("Shuffle Again? (Y/N): ");
+            userResponse = getLine();
+        } while (userResponse.equalsIgnoreCase("Y"));
+        printPayout(session.getTokens());
+    }
+
+    /**
+     * Plays a scripted game, reading the responses from a file or the standard input and writing the rounds...
+     * ...through one buffered writer. The hand is sorted before it is held from, just like when it is printed...
+     * ...to a human, so the card numbers of a response mean the same in both modes.
+     * @param args the program's arguments: batch [file | -] [verbose | quiet] [seed]
+     * @throws IOException if the responses cannot be read
+     */
+    private static void playBatch(String[] args) throws IOException
+    {
+        String file = args.length > 1 ? args[1] : "-";
+        boolean quiet = args.length > 2 && args[2].equalsIgnoreCase("quiet");
+        CardDeck deck = args.length > 3 ? new CardDeck(Long.parseLong(args[3])) : new CardDeck();
+        GameSession session = new GameSession(deck, PAY_OUTS, 100);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(64);
+        try (BufferedReader in = file.equals("-") ? IN : Files.newBufferedReader(Path.of(file)))
+        {
+            String response;
+            while ((response = in.readLine()) != null)
+            {
+                session.deal();
+                session.sortHand();
+                if (!quiet)
+                {
+                    line.setLength(0);
+                    line.append(session.getRoundsPlayed() + 1).append(':');
+                    appendHand(line, session);
+                }
+                int holdMask = GameSession.parseHoldMask(response.strip());
+                session.draw(holdMask < 0 ? GameSession.HOLD_ALL : holdMask);
+                PokerHandUtility.Score score = session.settle();
+                if (!quiet)
+                {
+                    line.append(" ->");
+                    appendHand(line, session);
+                    line.append(' ').append(score.getName()).append(' ').append(session.getTokens());
+                    out.append(line).append('\n');
+                }
+            }
+        }
+        out.flush();
+        System.out.println("Pulls this game\n================================");
+        printScoreResults(session.getPulls());
+        printPayout(session.getTokens());
+    }
+
+    /**
+     * Writes the hand of cards of a game session in short form, such as " 2H 5D 9C JS KS".
+     * @param line the builder to append the hand to
+     * @param session the game session whose hand of cards to append
+     */
+    private static void appendHand(StringBuilder line, GameSession session)
+    {
+        for (int i = 0; i < GameSession.CARDS_PER_HAND; ++i)
+        {
+            int code = session.getCardCode(i);
+            line.append(' ').append(RANK_CHARS.charAt(code % Card.NUM_OF_RANKS))
+                .append(SUIT_CHARS.charAt(code / Card.NUM_OF_RANKS));
+        }
+    }
+
+    /**
+     * @return returns a copy of the pay out table, indexed by PokerHandUtility.Score ordinal
+     */
+    public static int[] getPayOuts()
+    {
+        return PAY_OUTS.clone();
+    }
+
+    /**
+     * Returns a String representing the user's entire line of input.
+     * @return a String representing the user's entire line of input, or an empty String if the input has ended
+     */
+    private static String getLine()
+    {
+        try
+        {
+            String line = IN.readLine();
+            return line == null ? "" : line.strip();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prints out a player's hand of cards.
+     * @param hand the hand of cards to print out
+     */
+    public static void printHand(ArrayList< Card> hand)
+    {
+        System.out.print("Your hand contains:\n");
+        int count = 1;
+        for ( Card card : hand)
+        {
+            System.out.print(count++ + ": " + card.getRank() + " of " + card.getSuit() + "\n");
+        }
+    }
+
+    /**
+     * Prints out the hand of cards of a game session.
+     * @param session the game session whose hand of cards to print out
+     */
+    private static void printHand(GameSession session)
+    {
+        System.out.print("Your hand contains:\n");
+        for (int i = 0; i < GameSession.CARDS_PER_HAND; ++i)
+        {
+            Card card = Card.valueOf(session.getCardCode(i));
+            System.out.print((i + 1) + ": " + card.getRank() + " of " + card.getSuit() + "\n");
+        }
+    }
+
+    /**
+     * Prints the Score enum in a more normal string fashion.
+     * @param score the Score enum that the hand of cards was awarded
+     */
+    public static void printScoreEnum( PokerHandUtility.Score score)
+    {
+        System.out.println("Hand Score: " + score.getName());
+    }
+
+    /**
+     * Prints the collection of pulls achieved during the poker game.
+     */
+    private static void printScoreResults(long[] pulls)
+    {
+        for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+        {
+            System.out.printf("%s: %d\n", score.getName(), pulls[score.ordinal()]);
+        }
+    }
+
+    /**
+     * Prints out the player's payout after the game has ended.
+     * @param tokens the player's amount of tokens
+     */
+    private static void printPayout(long tokens)
+    {
+        System.out.printf("\nYour payout is: %d tokens\n", tokens);
+    }
+
+    /**
+     * Prompts the user if they want to modify their hand of cards.
+     * The user can choose to keep, replace, or get a new hand of cards.
+     * @param session the game session whose hand of cards to possibly reject from
+     */
+    private static void rejectCards(GameSession session)
+    {
+        // Exit case. There is not a reasonable amount of cards in the deck in order...
+        // ...to replace old cards or provide a new hand of cards for the user.
+        if (!session.canDraw())
+        {
+            System.out.print("""
+                    !!! You cannot reject any cards at the moment !!!
+                    The Card Deck will be re-shuffled next round.
+                    """);
+            session.draw(GameSession.HOLD_ALL);
+            return;
+        }
+
+        // Print out the expected inputs.
+        System.out.print("""
+                Enter "Keep" to keep your hand of cards.
+                Enter "New Hand" to receive a new hand of cards.
+                Enter a sequence of numbers which represent which cards to replace.
+                (Example: "1 2 4" would replace the first, second, and fourth card of the list above).
+                """);
+        System.out.print("Input: ");
+        int holdMask = GameSession.parseHoldMask(getLine());
+
+        // If the user wants to keep their hand, or entered an unexpected String, keep the hand and return.
+        if (holdMask == GameSession.HOLD_ALL || holdMask < 0)
+        {
+            session.draw(GameSession.HOLD_ALL);
+            return;
+        }
+        // Otherwise replace the cards which are not held (all of them for a new hand of cards).
+        session.draw(holdMask);
+        // Sort the hand of cards, so it prints in order.
+        session.sortHand();
+        // Print the hand of cards.
+        printHand(session);
+        System.out.println();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package videopoker;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class tests PokerHandUtility.bestHandRank() against a brute force over every five card subset.
+ * Random hands of five, six and seven cards are ranked both ways, and the brute force takes the highest...
+ * ...handRank() of the 1, 6 or 21 subsets. Then every one of the 133,784,560 hands of seven cards is ranked,...
+ * ...and the best hands of each Score are counted and checked against the well known counts.
+ */
+public class BestHandRankTester
+{
+    private static final int NUM_OF_TRIALS = 200_000;
+
+    public static void main(String[] args)
+    {
+        // Test case where random hands are ranked by bestHandRank() and by trying every subset.
+        SplittableRandom randomizer = new SplittableRandom(23);
+        for (int size = 5; size <= 7; ++size)
+        {
+            int mismatches = 0;
+            int[] cards = new int[size];
+            for (int trial = 0; trial < NUM_OF_TRIALS; ++trial)
+            {
+                randomCards(randomizer, cards);
+                long mask = PokerHandUtility.handMask(cards);
+                int bruteForceRank = bruteForceRank(mask);
+                if (PokerHandUtility.bestHandRank(mask) != bruteForceRank
+                    || PokerHandUtility.bestHandRank(cards) != bruteForceRank)
+                {
+                    ++mismatches;
+                }
+            }
+            System.out.printf("Hands of %d cards whose best rank differs from the brute force: %d of %,d\n", size,
+                              mismatches, NUM_OF_TRIALS);
+            System.out.printf("Expected: 0 of %,d\n\n", NUM_OF_TRIALS);
+        }
+
+        // Test case where the best hands of all seven card hands are counted by Score.
+        long[] scoreCounts = new long[PokerHandUtility.Score.values().length];
+        long numOfHands = 0;
+        for (long hand = 0b1111111; hand < (1L << Card.NUM_OF_CODES); hand = nextHand(hand))
+        {
+            ++scoreCounts[PokerHandUtility.rankScore(PokerHandUtility.bestHandRank(hand)).ordinal()];
+            ++numOfHands;
+        }
+        System.out.printf("Hands of 7 cards: %,d\n", numOfHands);
+        for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+        {
+            System.out.printf("%s: %,d  ", score.getName(), scoreCounts[score.ordinal()]);
+        }
+        System.out.print("\nExpected: 133,784,560\nNo Pairs: 23,294,460  One Pair: 58,627,800  Two Pairs: "
+                         + "31,433,400  Three of a Kind: 6,461,620  Straight: 6,180,020  Flush: 4,047,644  Full "
+                         + "House: 3,473,184  Four of a Kind: 224,848  Straight Flush: 37,260  Royal Flush: 4,324\n");
+    }
+
+    /**
+     * Ranks the best five card hand of some cards by ranking every subset of five cards with handRank().
+     * @param cards the card mask of five to seven cards
+     * @return returns the highest hand rank of the subsets
+     */
+    private static int bruteForceRank(long cards)
+    {
+        int[] codes = new int[Long.bitCount(cards)];
+        int count = 0;
+        for (long rest = cards; rest != 0; rest &= rest - 1)
+        {
+            codes[count++] = Long.numberOfTrailingZeros(rest);
+        }
+        int bestRank = 0;
+        for (int subset = 0; subset < (1 << codes.length); ++subset)
+        {
+            if (Integer.bitCount(subset) != 5)
+            {
+                continue;
+            }
+            long hand = 0;
+            for (int i = 0; i < codes.length; ++i)
+            {
+                if ((subset & (1 << i)) != 0)
+                {
+                    hand |= Card.mask(codes[i]);
+                }
+            }
+            bestRank = Math.max(bestRank, PokerHandUtility.handRank(hand));
+        }
+        return bestRank;
+    }
+
+    /**
+     * Fills an array with different random card codes, in no particular order.
+     * @param randomizer the random number generator
+     * @param cards the array to fill
+     */
+    private static void randomCards(SplittableRandom randomizer, int[] cards)
+    {
+        long used = 0;
+        for (int i = 0; i < cards.length; ++i)
+        {
+            do
+            {
+                cards[i] = randomizer.nextInt(Card.NUM_OF_CODES);
+            } while ((used & Card.mask(cards[i])) != 0);
+            used |= Card.mask(cards[i]);
+        }
+    }
+
+    /**
+     * Finds the next larger card mask with as many cards (Gosper's hack), so every hand of seven cards is visited.
+     * @param hand the card mask of a hand
+     * @return returns the next larger card mask with as many cards
+     */
+    private static long nextHand(long hand)
+    {
+        long ripple = hand + (hand & -hand);
+        return ripple | ((hand ^ ripple) >>> (Long.numberOfTrailingZeros(hand) + 2));
+    }
+}
@@ -0,0 +1,145 @@
+package videopoker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class tests CardCombinations: ranking and unranking, the CombinationSpliterator and its streams.
+ * Every one of the 2,598,960 hands is streamed in order, and its index must rank and unrank back to it. The same...
+ * ...is checked for combinations of a set of cards which is not one run of card codes. The stream is...
+ * ...also used to test PokerHandUtility.scoreHand() exhaustively: every hand is scored from its card mask and from...
+ * ...its card codes, in parallel, and the hands of each Score are counted.
+ */
+public class CardCombinationsTester
+{
+    // Every other run of four ranks of each suit, which takes the slower path of the CombinationSpliterator.
+    private static final long SPARSE_CARDS = 0xF0F0F0F0F0F0L;
+
+    public static void main(String[] args)
+    {
+        // Test case where every hand is streamed, ranked and unranked.
+        long[] previous = {-1};
+        long[] count = {0};
+        long[] wrongHands = {0};
+        CardCombinations.stream(Card.FULL_DECK_MASK, 5).forEach(hand ->
+        {
+            if (hand <= previous[0] || Long.bitCount(hand) != 5 || CardCombinations.rank(hand) != count[0]
+                || CardCombinations.unrank(count[0], 5) != hand)
+            {
+                ++wrongHands[0];
+            }
+            previous[0] = hand;
+            ++count[0];
+        });
+        System.out.printf("Hands: %,d  hands out of order or with the wrong index: %d\n", count[0], wrongHands[0]);
+        System.out.printf("Expected: %,d  hands out of order or with the wrong index: 0\n\n",
+                          CardCombinations.NUM_OF_HANDS);
+
+        // Test case where the combinations of 0 to 5 cards and of all 24 cards of a set are streamed, ranked and...
+        // ...unranked.
+        StringBuilder counts = new StringBuilder();
+        StringBuilder expectedCounts = new StringBuilder();
+        long wrongCombinations = 0;
+        int numOfCards = Long.bitCount(SPARSE_CARDS);
+        for (int size = 0; size <= numOfCards; size += size < 5 ? 1 : numOfCards - 5)
+        {
+            // tryAdvance() must step through the same combinations as forEachRemaining() does in the stream.
+            CardCombinations.CombinationSpliterator combinations = CardCombinations.spliterator(SPARSE_CARDS, size);
+            long index = 0;
+            long last = -1;
+            for (long combination : CardCombinations.stream(SPARSE_CARDS, size).toArray())
+            {
+                long[] advanced = {-1};
+                if (!combinations.tryAdvance((long next) -> advanced[0] = next) || advanced[0] != combination)
+                {
+                    ++wrongCombinations;
+                }
+                if (combination <= last || Long.bitCount(combination) != size || (combination & ~SPARSE_CARDS) != 0
+                    || CardCombinations.rank(combination, SPARSE_CARDS) != index
+                    || CardCombinations.unrank(index, size, SPARSE_CARDS) != combination)
+                {
+                    ++wrongCombinations;
+                }
+                last = combination;
+                ++index;
+            }
+            counts.append(String.format("%d: %,d  ", size, index));
+            expectedCounts.append(String.format("%d: %,d  ", size, CardCombinations.binomial(numOfCards, size)));
+        }
+        System.out.printf("Combinations of each size: %scombinations out of order or with the wrong index: %d\n",
+                          counts, wrongCombinations);
+        System.out.printf("Expected: %scombinations out of order or with the wrong index: 0\n\n", expectedCounts);
+
+        // Test case where the hands are split in two halves of the same size, and the second starts right after...
+        // ...the first.
+        CardCombinations.CombinationSpliterator second = CardCombinations.spliterator(Card.FULL_DECK_MASK, 5);
+        CardCombinations.CombinationSpliterator first = second.trySplit();
+        long firstSize = first.estimateSize();
+        long secondSize = second.estimateSize();
+        long[] lastOfFirst = {0};
+        long[] firstOfSecond = {0};
+        first.forEachRemaining((long hand) -> lastOfFirst[0] = hand);
+        second.tryAdvance((long hand) -> firstOfSecond[0] = hand);
+        boolean adjacent = CardCombinations.rank(lastOfFirst[0]) == firstSize - 1
+                           && CardCombinations.rank(firstOfSecond[0]) == firstSize;
+        System.out.printf("Halves: %,d and %,d  adjacent: %b\n", firstSize, secondSize, adjacent);
+        System.out.print("Expected: 1,299,480 and 1,299,480  adjacent: true\n\n");
+
+        // Test case where every hand is scored from its card mask and its card codes, in a parallel stream.
+        AtomicLongArray scoreCounts = new AtomicLongArray(PokerHandUtility.Score.values().length);
+        long wrongScores = CardCombinations.stream(Card.FULL_DECK_MASK, 5).parallel().filter(hand ->
+        {
+            PokerHandUtility.Score score = PokerHandUtility.scoreHand(hand);
+            scoreCounts.incrementAndGet(score.ordinal());
+            return PokerHandUtility.scoreHand(handCodes(hand)) != score;
+        }).count();
+        long parallelSum = CardCombinations.stream(Card.FULL_DECK_MASK, 5).parallel().sum();
+        long sequentialSum = CardCombinations.stream(Card.FULL_DECK_MASK, 5).sum();
+        System.out.printf("Hands whose Scores disagree: %d  parallel sum equals sequential sum: %b\n", wrongScores,
+                          parallelSum == sequentialSum);
+        System.out.print("Expected: 0  parallel sum equals sequential sum: true\n");
+        for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+        {
+            System.out.printf("%s: %,d  ", score.getName(), scoreCounts.get(score.ordinal()));
+        }
+        System.out.print("\nExpected: No Pairs: 1,302,540  One Pair: 1,098,240  Two Pairs: 123,552  Three of a Kind: "
+                         + "54,912  Straight: 10,200  Flush: 5,108  Full House: 3,744  Four of a Kind: 624  "
+                         + "Straight Flush: 36  Royal Flush: 4\n\n");
+
+        // Test case where combinations which do not exist are asked for.
+        int rejected = 0;
+        Runnable[] badCalls = {() -> CardCombinations.unrank(CardCombinations.NUM_OF_HANDS, 5),
+                               () -> CardCombinations.unrank(-1, 5),
+                               () -> CardCombinations.unrank(0, 5, 0xFL),
+                               () -> CardCombinations.rank(0b11L, 0b10L),
+                               () -> CardCombinations.spliterator(SPARSE_CARDS, -1),
+                               () -> CardCombinations.spliterator(SPARSE_CARDS, numOfCards + 1)};
+        for (Runnable badCall : badCalls)
+        {
+            try
+            {
+                badCall.run();
+            }
+            catch (IllegalArgumentException e)
+            {
+                ++rejected;
+            }
+        }
+        System.out.printf("Calls rejected: %d of %d\n", rejected, badCalls.length);
+        System.out.printf("Expected: %d of %d\n", badCalls.length, badCalls.length);
+    }
+
+    /**
+     * @param hand the card mask of a hand
+     * @return returns the card codes of the hand, from the lowest
+     */
+    private static int[] handCodes(long hand)
+    {
+        int[] codes = new int[Long.bitCount(hand)];
+        for (int i = 0; hand != 0; ++i)
+        {
+            codes[i] = Long.numberOfTrailingZeros(hand);
+            hand &= hand - 1;
+        }
+        return codes;
+    }
+}
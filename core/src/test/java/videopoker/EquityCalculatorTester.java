@@ -0,0 +1,254 @@
+package videopoker;
+
+import java.util.Arrays;
+
+/**
+ * This class tests the EquityCalculator's exhaustive enumeration and Monte Carlo sampling.
+ * Small deals are checked exactly against a brute force which deals every board and every missing hole card one...
+ * ...card at a time, and ranks each hand as the best handRank() of its subsets of five cards. Larger deals are...
+ * ...checked against well known equities, and a sampled calculation must land within a few standard errors of...
+ * ...the exact one. Every player's win, tie and lose probabilities must add up to 1, and so must the equities.
+ */
+public class EquityCalculatorTester
+{
+    private static final double EXACT_TOLERANCE = 1e-12;
+    private static final long SEED = 24;
+
+    public static void main(String[] args)
+    {
+        // Test case where two known hands are dealt every turn and river.
+        checkBruteForce(new long[] {cards("AHKD"), cards("QSQC")}, cards("2C7DJH"), 0);
+
+        // Test case where one player holds one card, so their other card is dealt along with the board.
+        checkBruteForce(new long[] {cards("AH"), cards("KSKC")}, cards("2C7DJH"), 0);
+
+        // Test case where three players often split the pot with the same straight, and a dead card is out of play.
+        checkBruteForce(new long[] {cards("AS2D"), cards("AC3H"), cards("KDKH")}, cards("4C5D6S"), cards("7H"));
+
+        // Test case where the board is complete and only the missing hole card is dealt: the Ace of Hearts only...
+        // ...wins with 7 of the 44 cards left, the three Aces and the four Fives (which make a Straight).
+        long[][] ranges = {{cards("AH")}, {cards("KSKC")}};
+        EquityCalculator.Result result = new EquityCalculator(ranges, cards("2C7DJH3S4D"), 0, SEED).calculate();
+        System.out.printf("Deals: %d  win: %.5f  exact: %b\n", result.getTrials(), result.getWinProbability(0),
+                          result.isExact());
+        System.out.printf("Expected: 44  win: %.5f  exact: true\n\n", 7 / 44.0);
+
+        // Test case where the board is a Royal Flush, which every player plays, so all three split the pot.
+        ranges = new long[][] {{cards("2H3H")}, {cards("7D8C")}, {cards("QHQD")}};
+        result = new EquityCalculator(ranges, cards("ASKSQSJSTS"), 0, SEED).calculate();
+        System.out.printf("Deals: %d  tie: %.5f %.5f %.5f  equity: %.5f %.5f %.5f\n", result.getTrials(),
+                          result.getTieProbability(0), result.getTieProbability(1), result.getTieProbability(2),
+                          result.getEquity(0), result.getEquity(1), result.getEquity(2));
+        System.out.print("Expected: 1  tie: 1.00000 1.00000 1.00000  equity: 0.33333 0.33333 0.33333\n\n");
+
+        // Test case where Aces meet Kings before the flop, with all 1,712,304 boards dealt.
+        ranges = new long[][] {{cards("AHAD")}, {cards("KSKC")}};
+        EquityCalculator.Result exact = new EquityCalculator(ranges, 0, 0, SEED).calculate();
+        System.out.printf("Deals: %,d  win: %.3f%%  tie: %.3f%%  lose: %.3f%%  exact: %b  totals off by: %d\n",
+                          exact.getTrials(), 100 * exact.getWinProbability(0), 100 * exact.getTieProbability(0),
+                          100 * exact.getLoseProbability(0), exact.isExact(), wrongTotals(exact, 2));
+        System.out.print("Expected: 1,712,304  win: 81.065%  tie: 0.382%  lose: 18.554%  exact: true  totals off by: "
+                         + "0\n\n");
+
+        // Test case where the same deal is sampled: a range of two equal hands is never enumerated.
+        ranges = new long[][] {{cards("AHAD")}, {cards("KSKC"), cards("KSKC")}};
+        EquityCalculator.Result sampled = new EquityCalculator(ranges, 0, 0, SEED).calculate(0.001, 10_000_000,
+                                                                                            partial -> { });
+        double errors = Math.abs(sampled.getEquity(0) - exact.getEquity(0)) / sampled.getStandardError(0);
+        System.out.printf("Sampled equity: %.4f  exact equity: %.4f  standard errors apart: %s  exact: %b  totals "
+                          + "off by: %d\n", sampled.getEquity(0), exact.getEquity(0),
+                          errors <= 4 ? "at most 4" : errors, sampled.isExact(), wrongTotals(sampled, 2));
+        System.out.printf("Expected: about %.4f  exact equity: %.4f  standard errors apart: at most 4  exact: false  "
+                          + "totals off by: 0\n\n", exact.getEquity(0), exact.getEquity(0));
+
+        // Test case where cards which cannot be parsed, or deals which can never be made, are asked for.
+        int rejected = 0;
+        long[][] manyPlayers = new long[24][];
+        Arrays.fill(manyPlayers, EquityCalculator.anyHoleCards());
+        Runnable[] badCalls = {() -> cards("AHK"),
+                               () -> cards("AHKDAH"),
+                               () -> cards("AX"),
+                               () -> new EquityCalculator(new long[][] {{cards("AHKD")}, {cards("QSQC")}},
+                                                          cards("AH2C7D"), 0, SEED),
+                               () -> new EquityCalculator(new long[][] {{cards("AHKD")}, {cards("QSQC")}}, 0,
+                                                          cards("QS"), SEED),
+                               () -> new EquityCalculator(new long[][] {{cards("AHKD")}, {cards("AHQC")}}, 0, 0,
+                                                          SEED),
+                               () -> new EquityCalculator(new long[][] {{cards("AHKD")}, {cards("QSQC")}},
+                                                          cards("2C7DJH"), cards("7D"), SEED),
+                               () -> new EquityCalculator(new long[][] {{cards("AHAD")},
+                                                                        {cards("AHKS"), cards("ADKS")}}, 0, 0, SEED),
+                               () -> new EquityCalculator(manyPlayers, 0, 0, SEED)};
+        for (Runnable badCall : badCalls)
+        {
+            try
+            {
+                badCall.run();
+            }
+            catch (IllegalArgumentException e)
+            {
+                ++rejected;
+            }
+        }
+        System.out.printf("Calls rejected: %d of %d\n", rejected, badCalls.length);
+        System.out.printf("Expected: %d of %d\n", badCalls.length, badCalls.length);
+    }
+
+    /**
+     * Calculates a deal with the EquityCalculator and with the brute force, and prints how far apart they are.
+     * @param hands the card mask of each player's hole cards, of one or two cards
+     * @param board the card mask of the board cards dealt so far
+     * @param deadCards the card mask of the cards which are out of play
+     */
+    private static void checkBruteForce(long[] hands, long board, long deadCards)
+    {
+        long[][] ranges = new long[hands.length][];
+        for (int player = 0; player < hands.length; ++player)
+        {
+            ranges[player] = new long[] {hands[player]};
+        }
+        EquityCalculator.Result result = new EquityCalculator(ranges, board, deadCards, SEED).calculate();
+        long[] wins = new long[hands.length];
+        long[] ties = new long[hands.length];
+        double[] shares = new double[hands.length];
+        long deals = dealAll(hands.clone(), board, board | deadCards | handsMask(hands), 0, 0, wins, ties, shares);
+        int mismatches = 0;
+        for (int player = 0; player < hands.length; ++player)
+        {
+            if (Math.abs(result.getWinProbability(player) - (double) wins[player] / deals) > EXACT_TOLERANCE
+                || Math.abs(result.getTieProbability(player) - (double) ties[player] / deals) > EXACT_TOLERANCE
+                || Math.abs(result.getEquity(player) - shares[player] / deals) > EXACT_TOLERANCE)
+            {
+                ++mismatches;
+            }
+        }
+        System.out.printf("Deals: %,d of %,d  players whose odds differ from the brute force: %d  exact: %b  totals "
+                          + "off by: %d\n", result.getTrials(), deals, mismatches, result.isExact(),
+                          wrongTotals(result, hands.length));
+        System.out.printf("Expected: %,d of %,d  players whose odds differ from the brute force: 0  exact: true  "
+                          + "totals off by: 0\n\n", deals, deals);
+    }
+
+    /**
+     * Deals every combination of the players' missing hole cards and the missing board cards, one card at a...
+     * ...time in order of card code, and adds up how each deal turns out.
+     * @param hands each player's hole cards so far, filled in while dealing
+     * @param board the board so far
+     * @param usedCards the card mask of every card which cannot be dealt
+     * @param player the player being dealt to, or the amount of players once the board is being dealt
+     * @param nextCode the lowest card code which may be dealt next to the same player or the board
+     * @param wins the amount of deals each player wins outright
+     * @param ties the amount of deals each player splits
+     * @param shares each player's total share of the pots
+     * @return returns the amount of deals
+     */
+    private static long dealAll(long[] hands, long board, long usedCards, int player, int nextCode, long[] wins,
+                                long[] ties, double[] shares)
+    {
+        if (player < hands.length && Long.bitCount(hands[player]) == EquityCalculator.MAX_HOLE_CARDS)
+        {
+            return dealAll(hands, board, usedCards, player + 1, 0, wins, ties, shares);
+        }
+        if (player == hands.length && Long.bitCount(board) == EquityCalculator.BOARD_SIZE)
+        {
+            int[] ranks = new int[hands.length];
+            int bestRank = 0;
+            int numOfBest = 0;
+            for (int i = 0; i < hands.length; ++i)
+            {
+                ranks[i] = bruteForceRank(hands[i] | board);
+                numOfBest = ranks[i] > bestRank ? 1 : ranks[i] == bestRank ? numOfBest + 1 : numOfBest;
+                bestRank = Math.max(bestRank, ranks[i]);
+            }
+            for (int i = 0; i < hands.length; ++i)
+            {
+                if (ranks[i] == bestRank)
+                {
+                    ++(numOfBest == 1 ? wins : ties)[i];
+                    shares[i] += 1.0 / numOfBest;
+                }
+            }
+            return 1;
+        }
+        long deals = 0;
+        for (int code = nextCode; code < Card.NUM_OF_CODES; ++code)
+        {
+            long card = Card.mask(code);
+            if ((usedCards & card) != 0)
+            {
+                continue;
+            }
+            if (player < hands.length)
+            {
+                hands[player] |= card;
+                deals += dealAll(hands, board, usedCards | card, player, code + 1, wins, ties, shares);
+                hands[player] &= ~card;
+            }
+            else
+            {
+                deals += dealAll(hands, board | card, usedCards | card, player, code + 1, wins, ties, shares);
+            }
+        }
+        return deals;
+    }
+
+    /**
+     * @param cards the card mask of seven cards
+     * @return returns the highest handRank() of the 21 subsets of five cards
+     */
+    private static int bruteForceRank(long cards)
+    {
+        int bestRank = 0;
+        for (long first = cards; first != 0; first &= first - 1)
+        {
+            for (long second = first & (first - 1); second != 0; second &= second - 1)
+            {
+                long hand = cards & ~Long.lowestOneBit(first) & ~Long.lowestOneBit(second);
+                bestRank = Math.max(bestRank, PokerHandUtility.handRank(hand));
+            }
+        }
+        return bestRank;
+    }
+
+    /**
+     * @param result the totals of a calculation
+     * @param numOfPlayers the amount of players
+     * @return returns how many of the players' win, tie and lose probabilities, plus the equities, do not add up to 1
+     */
+    private static int wrongTotals(EquityCalculator.Result result, int numOfPlayers)
+    {
+        int wrong = 0;
+        double equities = 0;
+        for (int player = 0; player < numOfPlayers; ++player)
+        {
+            double total = result.getWinProbability(player) + result.getTieProbability(player)
+                           + result.getLoseProbability(player);
+            wrong += Math.abs(total - 1) > 1e-9 ? 1 : 0;
+            equities += result.getEquity(player);
+        }
+        return wrong + (Math.abs(equities - 1) > 1e-9 ? 1 : 0);
+    }
+
+    /**
+     * @param hands card masks
+     * @return returns the card mask of all the hands together
+     */
+    private static long handsMask(long[] hands)
+    {
+        long mask = 0;
+        for (long hand : hands)
+        {
+            mask |= hand;
+        }
+        return mask;
+    }
+
+    /**
+     * @param cards cards written as rank and suit, such as "AHKD"
+     * @return returns the card mask of the cards
+     */
+    private static long cards(String cards)
+    {
+        return EquityCalculator.parseCards(cards);
+    }
+}
@@ -0,0 +1,166 @@
+package videopoker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * This class tests the HandCanonicalizer's suit classes and the StrategyTable built on them.
+ * Every one of the 2,598,960 hands is put in its class, and the classes are counted and checked against the...
+ * ...HandCanonicalizer's own list. Renaming the suits of a hand must never change its class, and the StrategyTable...
+ * ...must give every hand the same expected value as solving it with the HoldSolver.
+ */
+public class HandCanonicalizerTester
+{
+    private static final int NUM_OF_SUITS = Card.Suits.values().length;
+
+    public static void main(String[] args) throws IOException
+    {
+        // Test case where every hand is put in its class.
+        long[] keys = new long[2598960];
+        int[] hand = new int[5];
+        int count = 0;
+        int wrongIndexes = 0;
+        for (hand[0] = 0; hand[0] < Card.NUM_OF_CODES; ++hand[0])
+        {
+            for (hand[1] = hand[0] + 1; hand[1] < Card.NUM_OF_CODES; ++hand[1])
+            {
+                for (hand[2] = hand[1] + 1; hand[2] < Card.NUM_OF_CODES; ++hand[2])
+                {
+                    for (hand[3] = hand[2] + 1; hand[3] < Card.NUM_OF_CODES; ++hand[3])
+                    {
+                        for (hand[4] = hand[3] + 1; hand[4] < Card.NUM_OF_CODES; ++hand[4])
+                        {
+                            keys[count++] = HandCanonicalizer.canonicalKey(hand);
+                            int classIndex = HandCanonicalizer.classIndex(hand);
+                            if (classIndex < 0 || HandCanonicalizer.classKey(classIndex) != keys[count - 1])
+                            {
+                                ++wrongIndexes;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        long distinctKeys = Arrays.stream(keys).distinct().count();
+        long totalSize = 0;
+        for (int classIndex = 0; classIndex < HandCanonicalizer.NUM_OF_CLASSES; ++classIndex)
+        {
+            totalSize += HandCanonicalizer.classSize(classIndex);
+        }
+        System.out.printf("Classes: %,d  hands in the classes: %,d  hands in the wrong class: %d\n", distinctKeys,
+                          totalSize, wrongIndexes);
+        System.out.print("Expected: 134,459  hands in the classes: 2,598,960  hands in the wrong class: 0\n\n");
+
+        // Test case where the suits of random hands are renamed in all 24 ways.
+        SplittableRandom randomizer = new SplittableRandom(5);
+        int[] renamedHand = new int[5];
+        int[] canonicalHand = new int[5];
+        int changedClasses = 0;
+        for (int trial = 0; trial < 10_000; ++trial)
+        {
+            randomHand(randomizer, hand);
+            long key = HandCanonicalizer.canonicalKey(hand);
+            HandCanonicalizer.canonicalHand(hand, canonicalHand);
+            if (PokerHandUtility.handMask(canonicalHand) != key)
+            {
+                ++changedClasses;
+            }
+            for (int[] suits : suitPermutations())
+            {
+                for (int i = 0; i < hand.length; ++i)
+                {
+                    renamedHand[i] = suits[hand[i] / Card.NUM_OF_RANKS] * Card.NUM_OF_RANKS
+                                     + hand[i] % Card.NUM_OF_RANKS;
+                }
+                if (HandCanonicalizer.canonicalKey(renamedHand) != key)
+                {
+                    ++changedClasses;
+                }
+            }
+        }
+        System.out.printf("Renamed hands which changed class: %d\n", changedClasses);
+        System.out.print("Expected: 0\n\n");
+
+        // Test case where a StrategyTable is built and looked up for random hands.
+        Path file = Files.createTempFile("strategy", ".table");
+        try
+        {
+            int[] payOuts = VideoPokerMain.getPayOuts();
+            StrategyTable.build(file, payOuts);
+            StrategyTable table = StrategyTable.open(file);
+            int wrongValues = 0;
+            for (int trial = 0; trial < 10_000; ++trial)
+            {
+                randomHand(randomizer, hand);
+                HoldSolver.Hold[] holds = HoldSolver.solve(hand, payOuts);
+                double tableHoldValue = -1;
+                for (HoldSolver.Hold hold : holds)
+                {
+                    if (hold.getHoldMask() == table.bestHold(hand))
+                    {
+                        tableHoldValue = hold.getExpectedValue();
+                    }
+                }
+                // Holds may tie, so the table's hold only needs to be as good as the HoldSolver's best one. The...
+                // ...table keeps expected values as floats.
+                if (Math.abs(table.expectedValue(hand) - holds[0].getExpectedValue()) > 1e-5
+                    || Math.abs(tableHoldValue - holds[0].getExpectedValue()) > 1e-9)
+                {
+                    ++wrongValues;
+                }
+            }
+            System.out.printf("Hands whose table hold or expected value differs from the HoldSolver's: %d\n",
+                              wrongValues);
+            System.out.print("Expected: 0\n");
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @return returns all 24 ways to rename the four suits, each as the new suit of every old suit
+     */
+    private static int[][] suitPermutations()
+    {
+        int[][] permutations = new int[24][];
+        int count = 0;
+        for (int a = 0; a < NUM_OF_SUITS; ++a)
+        {
+            for (int b = 0; b < NUM_OF_SUITS; ++b)
+            {
+                for (int c = 0; c < NUM_OF_SUITS; ++c)
+                {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c)
+                    {
+                        permutations[count++] = new int[] {a, b, c, d};
+                    }
+                }
+            }
+        }
+        return permutations;
+    }
+
+    /**
+     * Fills a hand with five different random card codes.
+     * @param randomizer the random number generator
+     * @param hand the array to fill
+     */
+    private static void randomHand(SplittableRandom randomizer, int[] hand)
+    {
+        long cards = 0;
+        for (int i = 0; i < hand.length; ++i)
+        {
+            do
+            {
+                hand[i] = randomizer.nextInt(Card.NUM_OF_CODES);
+            } while ((cards & Card.mask(hand[i])) != 0);
+            cards |= Card.mask(hand[i]);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package videopoker;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class tests PokerHandUtility.handRank() over all 2,598,960 hands.
+ * Each hand is also given a naive strength: its category, then its ranks ordered by how often they appear and then...
+ * ...by rank, the way poker players compare hands. Hands of the same strength must share one hand rank, and a...
+ * ...stronger hand must always have a higher one, which leaves exactly 7462 hand ranks. The Score of every hand...
+ * ...must also be the same from scoreHand(long), scoreHand(int[]) and the range of its hand rank.
+ */
+public class HandRankTester
+{
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+
+    public static void main(String[] args)
+    {
+        // The hand rank of each naive strength, in order of strength.
+        TreeMap<Long, Integer> strengthRanks = new TreeMap<>();
+        int[] hand = new int[5];
+        long sharedStrengths = 0;
+        long wrongScores = 0;
+        for (hand[0] = 0; hand[0] < Card.NUM_OF_CODES; ++hand[0])
+        {
+            for (hand[1] = hand[0] + 1; hand[1] < Card.NUM_OF_CODES; ++hand[1])
+            {
+                for (hand[2] = hand[1] + 1; hand[2] < Card.NUM_OF_CODES; ++hand[2])
+                {
+                    for (hand[3] = hand[2] + 1; hand[3] < Card.NUM_OF_CODES; ++hand[3])
+                    {
+                        for (hand[4] = hand[3] + 1; hand[4] < Card.NUM_OF_CODES; ++hand[4])
+                        {
+                            long mask = PokerHandUtility.handMask(hand);
+                            int rank = PokerHandUtility.handRank(mask);
+                            Integer sameStrengthRank = strengthRanks.putIfAbsent(naiveStrength(hand), rank);
+                            if (sameStrengthRank != null && sameStrengthRank != rank)
+                            {
+                                ++sharedStrengths;
+                            }
+                            PokerHandUtility.Score score = PokerHandUtility.scoreHand(mask);
+                            if (PokerHandUtility.handRank(hand) != rank || PokerHandUtility.scoreHand(hand) != score
+                                || PokerHandUtility.rankScore(rank) != score)
+                            {
+                                ++wrongScores;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Test case where hands of the same naive strength are ranked.
+        System.out.printf("Hands whose rank differs from another hand of the same strength: %d\n", sharedStrengths);
+        System.out.print("Expected: 0\n\n");
+
+        // Test case where the strengths are put in order.
+        int previousRank = 0;
+        long misorderedRanks = 0;
+        long[] ranksOfScore = new long[NUM_OF_SCORES];
+        for (Map.Entry<Long, Integer> entry : strengthRanks.entrySet())
+        {
+            if (entry.getValue() != previousRank + 1)
+            {
+                ++misorderedRanks;
+            }
+            previousRank = entry.getValue();
+            ++ranksOfScore[PokerHandUtility.rankScore(entry.getValue()).ordinal()];
+        }
+        System.out.printf("Hand ranks: %d  highest: %d  ranks out of order: %d\n", strengthRanks.size(), previousRank,
+                          misorderedRanks);
+        System.out.printf("Expected: %d  highest: %d  ranks out of order: 0\n\n", PokerHandUtility.NUM_OF_HAND_RANKS,
+                          PokerHandUtility.NUM_OF_HAND_RANKS);
+
+        // Test case where the hand ranks of each Score are counted.
+        for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+        {
+            System.out.printf("%s: %d  ", score.getName(), ranksOfScore[score.ordinal()]);
+        }
+        System.out.print("\nExpected: No Pairs: 1277  One Pair: 2860  Two Pairs: 858  Three of a Kind: 858  "
+                         + "Straight: 10  Flush: 1277  Full House: 156  Four of a Kind: 156  Straight Flush: 9  "
+                         + "Royal Flush: 1\n\n");
+
+        // Test case where every hand is scored by its cards and by its card mask.
+        System.out.printf("Hands whose Scores or ranks disagree: %d\n", wrongScores);
+        System.out.print("Expected: 0\n");
+    }
+
+    /**
+     * Finds the strength of a hand the way a player would: the category, then every rank of the hand, ordered by...
+     * ...how often it appears and then by rank. A Straight only counts its highest card, which is the Five for...
+     * ...A-2-3-4-5. A Royal Flush is simply the highest Straight Flush.
+     * @param hand five different card codes
+     * @return returns the strength, packed so that a stronger hand has a larger number
+     */
+    private static long naiveStrength(int[] hand)
+    {
+        int[] rankCounts = new int[Card.NUM_OF_RANKS];
+        boolean flush = true;
+        for (int code : hand)
+        {
+            ++rankCounts[code % Card.NUM_OF_RANKS];
+            flush &= code / Card.NUM_OF_RANKS == hand[0] / Card.NUM_OF_RANKS;
+        }
+        // The ranks, by count and then by rank, both from the highest.
+        long ranks = 0;
+        int maxCount = 0;
+        int distinctRanks = 0;
+        for (int count = 4; count >= 1; --count)
+        {
+            for (int rank = Card.NUM_OF_RANKS - 1; rank >= 0; --rank)
+            {
+                if (rankCounts[rank] == count)
+                {
+                    ranks = ranks << 4 | rank;
+                    maxCount = Math.max(maxCount, count);
+                    ++distinctRanks;
+                }
+            }
+        }
+        int straightHighRank = -1;
+        if (distinctRanks == 5)
+        {
+            int highest = (int) (ranks >>> 16);
+            int lowest = (int) (ranks & 0xF);
+            if (highest - lowest == 4)
+            {
+                straightHighRank = highest;
+            }
+            else if (highest == Card.Ranks.ACE.ordinal() && (ranks & 0xFFFF) == 0x3210)
+            {
+                straightHighRank = Card.Ranks.FIVE.ordinal();
+            }
+        }
+        int category;
+        if (straightHighRank >= 0)
+        {
+            category = flush ? 8 : 4;
+            ranks = straightHighRank;
+        }
+        else if (flush)
+        {
+            category = 5;
+        }
+        else if (maxCount == 4)
+        {
+            category = 7;
+        }
+        else if (maxCount == 3)
+        {
+            category = distinctRanks == 2 ? 6 : 3;
+        }
+        else if (maxCount == 2)
+        {
+            category = distinctRanks == 3 ? 2 : 1;
+        }
+        else
+        {
+            category = 0;
+        }
+        return (long) category << 20 | ranks;
+    }
+}
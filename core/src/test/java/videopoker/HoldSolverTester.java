@@ -0,0 +1,184 @@
+package videopoker;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class tests the HoldSolver's expected values (solve() and bestHold()).
+ * For each dealt hand, every one of the 32 holds is checked against a brute force count: every possible draw from...
+ * ...the 47 remaining cards is scored with PokerHandUtility.scoreHand(), and the draws ending in each Score are...
+ * ...counted. The HoldSolver's counts, expected values and best hold must match those exactly.
+ */
+public class HoldSolverTester
+{
+    private static final int NUM_OF_SCORES = PokerHandUtility.Score.values().length;
+
+    public static void main(String[] args)
+    {
+        int[] payOuts = VideoPokerMain.getPayOuts();
+
+        // Test case where the hand is a Royal Flush, so holding every card is best and pays 250 tokens.
+        int[] royalFlush = {Card.encode(Card.Ranks.ACE, Card.Suits.SPADES),
+                            Card.encode(Card.Ranks.KING, Card.Suits.SPADES),
+                            Card.encode(Card.Ranks.QUEEN, Card.Suits.SPADES),
+                            Card.encode(Card.Ranks.JACK, Card.Suits.SPADES),
+                            Card.encode(Card.Ranks.TEN, Card.Suits.SPADES)};
+        HoldSolver.Hold best = HoldSolver.solve(royalFlush, payOuts)[0];
+        System.out.printf("Best hold: %s  expected value: %.1f\n", holdString(best.getHoldMask()),
+                          best.getExpectedValue());
+        System.out.print("Expected: 11111  expected value: 250.0\n\n");
+
+        // Test case where the hand is four cards to a Royal Flush and a Two: the Two is thrown away, and one of...
+        // ...the 47 draws makes the Royal Flush.
+        int[] fourToARoyal = {Card.encode(Card.Ranks.KING, Card.Suits.HEARTS),
+                              Card.encode(Card.Ranks.TWO, Card.Suits.CLUBS),
+                              Card.encode(Card.Ranks.QUEEN, Card.Suits.HEARTS),
+                              Card.encode(Card.Ranks.JACK, Card.Suits.HEARTS),
+                              Card.encode(Card.Ranks.TEN, Card.Suits.HEARTS)};
+        best = HoldSolver.solve(fourToARoyal, payOuts)[0];
+        System.out.printf("Best hold: %s  Royal Flush draws: %d of %d\n", holdString(best.getHoldMask()),
+                          best.getOutcomes(PokerHandUtility.Score.ROYAL_FLUSH), best.getNumOfDraws());
+        System.out.print("Expected: 10111  Royal Flush draws: 1 of 47\n\n");
+
+        // Test case where every hold of some dealt hands is counted by brute force.
+        SplittableRandom randomizer = new SplittableRandom(4);
+        int mismatches = 0;
+        int numOfHands = 8;
+        int[][] hands = new int[numOfHands][];
+        hands[0] = royalFlush;
+        hands[1] = fourToARoyal;
+        for (int i = 2; i < numOfHands; ++i)
+        {
+            hands[i] = randomHand(randomizer);
+        }
+        for (int[] hand : hands)
+        {
+            HoldSolver.Hold[] holds = HoldSolver.solve(hand, payOuts);
+            double bestExpectedValue = -1;
+            for (HoldSolver.Hold hold : holds)
+            {
+                long[] outcomes = bruteForceOutcomes(hand, hold.getHoldMask());
+                long totalPayOut = 0;
+                long numOfDraws = 0;
+                for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+                {
+                    if (hold.getOutcomes(score) != outcomes[score.ordinal()])
+                    {
+                        ++mismatches;
+                    }
+                    totalPayOut += outcomes[score.ordinal()] * payOuts[score.ordinal()];
+                    numOfDraws += outcomes[score.ordinal()];
+                }
+                if (hold.getNumOfDraws() != numOfDraws
+                    || Math.abs(hold.getExpectedValue() - (double) totalPayOut / numOfDraws) > 1e-12)
+                {
+                    ++mismatches;
+                }
+                bestExpectedValue = Math.max(bestExpectedValue, (double) totalPayOut / numOfDraws);
+            }
+            if (Math.abs(holds[0].getExpectedValue() - bestExpectedValue) > 1e-12
+                || HoldSolver.bestHold(hand, payOuts) != holds[0].getHoldMask())
+            {
+                ++mismatches;
+            }
+            printHand(hand);
+            System.out.printf("best hold %s  expected value %.6f\n", holdString(holds[0].getHoldMask()),
+                              holds[0].getExpectedValue());
+        }
+        System.out.printf("Holds which differ from the brute force count: %d\n", mismatches);
+        System.out.print("Expected: 0\n");
+    }
+
+    /**
+     * Counts how many of the possible draws of a hold end in each Score, by scoring every draw.
+     * @param hand the dealt hand of five different card codes
+     * @param holdMask the held cards, bit i is set if the card at index i of the hand is held
+     * @return returns the count for each Score (indexed by Score ordinal)
+     */
+    private static long[] bruteForceOutcomes(int[] hand, int holdMask)
+    {
+        long dealtCards = PokerHandUtility.handMask(hand);
+        int[] finalHand = new int[HoldSolver.HAND_SIZE];
+        int held = 0;
+        for (int i = 0; i < HoldSolver.HAND_SIZE; ++i)
+        {
+            if ((holdMask & (1 << i)) != 0)
+            {
+                finalHand[held++] = hand[i];
+            }
+        }
+        long[] outcomes = new long[NUM_OF_SCORES];
+        countDraws(finalHand, held, 0, dealtCards, outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Fills the rest of a hand with every combination of the cards which were not dealt, and counts the Scores.
+     * @param finalHand the hand being filled
+     * @param filled how many cards of the hand are filled
+     * @param nextCode the lowest card code which may be drawn next
+     * @param dealtCards the card mask of the dealt cards, which cannot be drawn
+     * @param outcomes the count for each Score
+     */
+    private static void countDraws(int[] finalHand, int filled, int nextCode, long dealtCards, long[] outcomes)
+    {
+        if (filled == finalHand.length)
+        {
+            ++outcomes[PokerHandUtility.scoreHand(finalHand).ordinal()];
+            return;
+        }
+        for (int code = nextCode; code < Card.NUM_OF_CODES; ++code)
+        {
+            if ((dealtCards & Card.mask(code)) == 0)
+            {
+                finalHand[filled] = code;
+                countDraws(finalHand, filled + 1, code + 1, dealtCards, outcomes);
+            }
+        }
+    }
+
+    /**
+     * @param randomizer the random number generator
+     * @return returns five different random card codes
+     */
+    private static int[] randomHand(SplittableRandom randomizer)
+    {
+        int[] hand = new int[HoldSolver.HAND_SIZE];
+        long cards = 0;
+        for (int i = 0; i < hand.length; ++i)
+        {
+            do
+            {
+                hand[i] = randomizer.nextInt(Card.NUM_OF_CODES);
+            } while ((cards & Card.mask(hand[i])) != 0);
+            cards |= Card.mask(hand[i]);
+        }
+        return hand;
+    }
+
+    /**
+     * @param holdMask the held cards, bit i is set if the card at index i of the hand is held
+     * @return returns the hold as five digits, 1 for each held card, from the first card to the last
+     */
+    private static String holdString(int holdMask)
+    {
+        StringBuilder hold = new StringBuilder();
+        for (int i = 0; i < HoldSolver.HAND_SIZE; ++i)
+        {
+            hold.append((holdMask >> i) & 1);
+        }
+        return hold.toString();
+    }
+
+    /**
+     * Prints the cards of a hand on one line.
+     * @param hand the hand of card codes
+     */
+    private static void printHand(int[] hand)
+    {
+        for (int code : hand)
+        {
+            Card card = Card.valueOf(code);
+            System.out.printf("%s of %s, ", card.getRank(), card.getSuit());
+        }
+    }
+}
@@ -1,9 +1,12 @@
+package videopoker;
+
 import java.util.ArrayList;
 
 /**
  * This class simply tests the PokerHandUtility's scoring methods (isRoyalFlush(), isStraight(), isFullHouse(), etc.)
  * It is not necessary to run the VideoPokerMain.java program, however, it is necessary in order to test the scoring methods.
  * A hand of cards is manually created in order to test if each scoring method is computed correctly.
+ * The hands are scored (and printed) unsorted, since scoring does not depend on the order of the cards.
  * This test class uses public methods from the VideoPokerMain class and PokerHandUtility class.
  */
 public class PokerHandUtilityScoreTester
@@ -19,7 +22,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.TEN, Card.Suits.HEARTS));
         hand.add(new Card(Card.Ranks.QUEEN, Card.Suits.DIAMONDS));
         hand.add(new Card(Card.Ranks.EIGHT, Card.Suits.SPADES));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: No Pairs\n\n");
@@ -31,7 +33,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.NINE, Card.Suits.HEARTS));
         hand.add(new Card(Card.Ranks.JACK, Card.Suits.DIAMONDS));
         hand.add(new Card(Card.Ranks.EIGHT, Card.Suits.SPADES));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: One Pair\n\n");
@@ -43,7 +44,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.NINE, Card.Suits.CLUBS));
         hand.add(new Card(Card.Ranks.JACK, Card.Suits.SPADES));
         hand.add(new Card(Card.Ranks.EIGHT, Card.Suits.SPADES));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: Two Pairs\n\n");
@@ -55,7 +55,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.NINE, Card.Suits.SPADES));
         hand.add(new Card(Card.Ranks.JACK, Card.Suits.HEARTS));
         hand.add(new Card(Card.Ranks.EIGHT, Card.Suits.DIAMONDS));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: Three of a Kind\n\n");
@@ -67,7 +66,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.ACE, Card.Suits.DIAMONDS));
         hand.add(new Card(Card.Ranks.TEN, Card.Suits.SPADES));
         hand.add(new Card(Card.Ranks.QUEEN, Card.Suits.SPADES));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: Straight\n\n");
@@ -79,7 +77,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.TEN, Card.Suits.CLUBS));
         hand.add(new Card(Card.Ranks.SIX, Card.Suits.CLUBS));
         hand.add(new Card(Card.Ranks.TWO, Card.Suits.CLUBS));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: Flush\n\n");
@@ -91,7 +88,6 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.TWO, Card.Suits.SPADES));
         hand.add(new Card(Card.Ranks.KING, Card.Suits.DIAMONDS));
         hand.add(new Card(Card.Ranks.TWO, Card.Suits.SPADES));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
         System.out.print("Expected: Full House\n\n");
@@ -103,10 +99,9 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.QUEEN, Card.Suits.HEARTS));
         hand.add(new Card(Card.Ranks.THREE, Card.Suits.HEARTS));
         hand.add(new Card(Card.Ranks.THREE, Card.Suits.HEARTS));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
-        System.out.print("Expected: Four of a kind!\n\n");
+        System.out.print("Expected: Four of a Kind\n\n");
 
         // Test case where the hand is both a straight and flush.
         hand.clear();
@@ -115,10 +110,9 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.THREE, Card.Suits.SPADES));
         hand.add(new Card(Card.Ranks.TWO, Card.Suits.SPADES));
         hand.add(new Card(Card.Ranks.FIVE, Card.Suits.SPADES));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
-        System.out.print("Expected: Straight Flush!\n\n");
+        System.out.print("Expected: Straight Flush\n\n");
 
         // Test case where the hand contains a 10, Jack, Queen, King, and Ace...
         // ...while all belonging to the same Suit.
@@ -128,9 +122,8 @@ public class PokerHandUtilityScoreTester
         hand.add(new Card(Card.Ranks.ACE, Card.Suits.DIAMONDS));
         hand.add(new Card(Card.Ranks.TEN, Card.Suits.DIAMONDS));
         hand.add(new Card(Card.Ranks.QUEEN, Card.Suits.DIAMONDS));
-        PokerHandUtility.sortHand(hand);
         VideoPokerMain.printHand(hand);
         VideoPokerMain.printScoreEnum(PokerHandUtility.scoreHand(hand));
-        System.out.print("Expected: Royal Flush!\n\n");
+        System.out.print("Expected: Royal Flush\n\n");
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package videopoker;
+
+/**
+ * This class tests batch scoring (PokerHandUtility.scoreHands() and VectorHandScorer) against scoring one hand at...
+ * ...a time with PokerHandUtility.scoreHand(long). All 2,598,960 hands are scored in batches of an odd size, so...
+ * ...every batch also leaves a few hands over for the scalar loop.
+ * VectorHandScorer is only checked when the JVM is started with --add-modules jdk.incubator.vector:
+ *   java --add-modules jdk.incubator.vector -cp core/target/classes:core/target/test-classes ...
+ *   ...videopoker.VectorHandScorerTester
+ */
+public class VectorHandScorerTester
+{
+    private static final int BATCH_SIZE = 1021;
+
+    public static void main(String[] args)
+    {
+        boolean vectorApi = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        long[] hands = new long[BATCH_SIZE];
+        byte[] scores = new byte[BATCH_SIZE];
+        PokerHandUtility.Score[] scoreEnums = new PokerHandUtility.Score[BATCH_SIZE];
+        byte[] vectorScores = new byte[BATCH_SIZE];
+        long[] scoreCounts = new long[PokerHandUtility.Score.values().length];
+        long numOfHands = 0;
+        long batchMismatches = 0;
+        long vectorMismatches = 0;
+        long vectorHands = 0;
+        int count = 0;
+        for (long hand = 0b11111; hand < (1L << Card.NUM_OF_CODES); hand = nextHand(hand))
+        {
+            hands[count++] = hand;
+            if (count < BATCH_SIZE && nextHand(hand) < (1L << Card.NUM_OF_CODES))
+            {
+                continue;
+            }
+            PokerHandUtility.scoreHands(hands, scores, count);
+            PokerHandUtility.scoreHands(hands, scoreEnums, count);
+            int vectorCount = vectorApi ? VectorHandScorer.scoreHands(hands, vectorScores, count) : 0;
+            vectorHands += vectorCount;
+            for (int i = 0; i < count; ++i)
+            {
+                PokerHandUtility.Score score = PokerHandUtility.scoreHand(hands[i]);
+                ++scoreCounts[score.ordinal()];
+                if (scores[i] != score.ordinal() || scoreEnums[i] != score)
+                {
+                    ++batchMismatches;
+                }
+                if (i < vectorCount && vectorScores[i] != score.ordinal())
+                {
+                    ++vectorMismatches;
+                }
+            }
+            numOfHands += count;
+            count = 0;
+        }
+
+        // Test case where every hand is scored in batches.
+        System.out.printf("Hands scored: %,d  batch scores which differ from scoreHand(): %d\n", numOfHands,
+                          batchMismatches);
+        System.out.print("Expected: 2,598,960  batch scores which differ from scoreHand(): 0\n\n");
+
+        // Test case where the hands of each Score are counted.
+        for (PokerHandUtility.Score score : PokerHandUtility.Score.values())
+        {
+            System.out.printf("%s: %,d  ", score.getName(), scoreCounts[score.ordinal()]);
+        }
+        System.out.print("\nExpected: No Pairs: 1,302,540  One Pair: 1,098,240  Two Pairs: 123,552  Three of a Kind: "
+                         + "54,912  Straight: 10,200  Flush: 5,108  Full House: 3,744  Four of a Kind: 624  "
+                         + "Straight Flush: 36  Royal Flush: 4\n\n");
+
+        // Test case where the hands are scored by VectorHandScorer alone.
+        if (!vectorApi)
+        {
+            System.out.println("The Vector API was not added to the JVM, so VectorHandScorer was not tested");
+            return;
+        }
+        System.out.printf("Hands scored with vectors: %,d  vector scores which differ from scoreHand(): %d\n",
+                          vectorHands, vectorMismatches);
+        System.out.print("Expected: more than 2,500,000  vector scores which differ from scoreHand(): 0\n");
+    }
+
+    /**
+     * Finds the next larger card mask with as many cards (Gosper's hack), so every hand of five cards is visited.
+     * @param hand the card mask of a hand
+     * @return returns the next larger card mask with as many cards
+     */
+    private static long nextHand(long hand)
+    {
+        long ripple = hand + (hand & -hand);
+        return ripple | ((hand ^ ripple) >>> (Long.numberOfTrailingZeros(hand) + 2));
+    }
+}